@@ -0,0 +1,192 @@
+package com.scheduler.cli;
+
+import com.scheduler.engine.FeasibilityCheck;
+import com.scheduler.engine.TimetableGenerator;
+import com.scheduler.model.Chromosome;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Room;
+import com.scheduler.model.Score;
+import com.scheduler.model.Section;
+import com.scheduler.model.Subject;
+import com.scheduler.util.DataExporter;
+import com.scheduler.util.MappedCsvLoader;
+import com.scheduler.util.Snapshot;
+import com.scheduler.util.SolutionWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generates a timetable without the JavaFX dashboard, for scheduled runs on headless
+ * servers. Only engine, model and util classes are used, so the FX toolkit never loads.
+ *
+ * Usage: BatchCli faculty.csv subjects.csv sections.csv [options]
+ * <pre>
+ *   --rooms FILE           rooms CSV; rooms are assigned after solving
+ *   --time-limit SECONDS   wall-clock budget for the solve (default: none)
+ *   --seed N               random seed, for reproducible runs
+ *   --solver NAME          genetic (default) or lns
+ *   --threads N            worker threads (default: all cores)
+ *   --balanced             min-cost-flow faculty assignment instead of greedy
+ *   --out DIR              output directory (default: current directory)
+ *   --format LIST          comma-separated exports: xlsx, pdf, jsonl, csv, ttsnap (default: xlsx,pdf)
+ * </pre>
+ * Exports are written as {@code timetable.<format>} in the output directory.
+ *
+ * Exit status: 0 timetable without hard violations, 1 error, 2 bad usage, 3 input that
+ * cannot be scheduled (see {@link FeasibilityCheck}), 4 timetable with hard violations.
+ */
+public class BatchCli {
+
+    static final int OK = 0;
+    static final int FAILED = 1;
+    static final int USAGE = 2;
+    static final int INFEASIBLE = 3;
+    static final int HARD_VIOLATIONS = 4;
+
+    private static final String USAGE_TEXT = "Usage: BatchCli faculty.csv subjects.csv sections.csv [--rooms FILE]"
+            + " [--time-limit SECONDS] [--seed N] [--solver genetic|lns] [--threads N] [--balanced]"
+            + " [--out DIR] [--format xlsx,pdf,jsonl,csv,ttsnap]";
+    private static final List<String> FORMATS = Arrays.asList("xlsx", "pdf", "jsonl", "csv", "ttsnap");
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true"); // The PDF exporter touches AWT colours
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        List<String> files = new ArrayList<>();
+        String rooms = null;
+        long timeLimitMillis = 0;
+        Long seed = null;
+        TimetableGenerator.Algorithm algorithm = TimetableGenerator.Algorithm.GENETIC;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean balanced = false;
+        Path out = Paths.get(".");
+        List<String> formats = Arrays.asList("xlsx", "pdf");
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    files.add(arg);
+                    continue;
+                }
+                if (arg.equals("--balanced")) {
+                    balanced = true;
+                    continue;
+                }
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(arg + " needs a value");
+                String value = args[++i];
+                switch (arg) {
+                    case "--rooms":
+                        rooms = value;
+                        break;
+                    case "--time-limit":
+                        timeLimitMillis = Math.round(Double.parseDouble(value) * 1000);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--solver":
+                        algorithm = value.equalsIgnoreCase("genetic") ? TimetableGenerator.Algorithm.GENETIC
+                                : TimetableGenerator.Algorithm.valueOf(value.toUpperCase());
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--out":
+                        out = Paths.get(value);
+                        break;
+                    case "--format":
+                        formats = Arrays.asList(value.toLowerCase().split("\\s*,\\s*"));
+                        for (String f : formats) {
+                            if (!FORMATS.contains(f))
+                                throw new IllegalArgumentException("unknown format " + f);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+            if (files.size() != 3)
+                throw new IllegalArgumentException("expected 3 CSV files, got " + files.size());
+        } catch (IllegalArgumentException e) { // Includes NumberFormatException
+            System.err.println("Bad arguments: " + e.getMessage());
+            System.err.println(USAGE_TEXT);
+            return USAGE;
+        }
+
+        try {
+            MappedCsvLoader parser = new MappedCsvLoader();
+            List<Faculty> faculty = parser.loadFaculty(files.get(0));
+            List<Subject> subjects = parser.loadSubjects(files.get(1));
+            List<Section> sections = parser.loadSections(files.get(2));
+            List<Room> roomList = rooms == null ? new ArrayList<>() : parser.loadRooms(rooms);
+
+            TimetableGenerator generator = new TimetableGenerator();
+            generator.setAlgorithm(algorithm);
+            generator.setThreads(threads);
+            generator.setBalancedAssignment(balanced);
+            generator.setTimeLimit(timeLimitMillis);
+            if (seed != null)
+                generator.setSeed(seed);
+
+            long start = System.currentTimeMillis();
+            Chromosome timetable = generator.generateTimetable(faculty, subjects, sections);
+            long elapsed = System.currentTimeMillis() - start;
+            for (FeasibilityCheck.Diagnostic d : generator.getWarnings())
+                System.err.println(d);
+            int roomless = roomList.isEmpty() ? 0 : generator.assignRooms(timetable, roomList);
+
+            Score score = timetable.getScore();
+            System.out.println("Score: " + score + " | Lower bound: " + generator.getLowerBound() + " | "
+                    + timetable.getGenes().size() + " classes in " + elapsed + " ms"
+                    + (roomList.isEmpty() ? "" : " | " + roomless + " classes without a room"));
+
+            Files.createDirectories(out);
+            for (String format : formats) {
+                Path file = out.resolve("timetable." + format);
+                export(timetable, format, file, faculty, subjects, sections, generator);
+                System.out.println("Wrote " + file);
+            }
+            return score.getHard() == 0 ? OK : HARD_VIOLATIONS;
+        } catch (FeasibilityCheck.InfeasibleException e) {
+            for (FeasibilityCheck.Diagnostic d : e.getDiagnostics())
+                System.err.println(d);
+            return INFEASIBLE;
+        } catch (Exception e) {
+            System.err.println("Batch run failed: " + e.getMessage());
+            return FAILED;
+        }
+    }
+
+    private static void export(Chromosome timetable, String format, Path file, List<Faculty> faculty,
+            List<Subject> subjects, List<Section> sections, TimetableGenerator generator) throws IOException {
+        switch (format) {
+            case "xlsx":
+                new DataExporter().exportToExcel(timetable, file.toString());
+                break;
+            case "pdf":
+                new DataExporter().exportToPdf(timetable, file.toString());
+                break;
+            case "ttsnap":
+                new Snapshot(faculty, subjects, sections, generator.createSlots(), timetable.getGenes(), timetable)
+                        .write(file.toString());
+                break;
+            default:
+                try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    new SolutionWriter().write(timetable, stream,
+                            format.equals("jsonl") ? SolutionWriter.Format.JSONL : SolutionWriter.Format.CSV);
+                }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.scheduler.cli;
+
+import com.scheduler.engine.Scenario;
+import com.scheduler.engine.ScenarioResult;
+import com.scheduler.engine.ScenarioRunner;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Section;
+import com.scheduler.model.Subject;
+import com.scheduler.util.MappedCsvLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs a batch of what-if scenarios and prints a comparison table.
+ *
+ * Usage: ScenarioCli faculty.csv subjects.csv sections.csv scenarios.txt [threads]
+ *
+ * Each non-empty line of the scenario file is {@code name | op args | op args ...}, where op is
+ * one of:
+ * <pre>
+ *   hire COUNT CODE;CODE [WORKLOAD RESEARCH]   add COUNT new faculty teaching the given subjects
+ *   drop-faculty ID                           remove a faculty member
+ *   add-section ID BATCHES NAME...            add a section
+ *   drop-section ID                           remove a section
+ *   drop-day DAY                              remove all slots of a day, e.g. SATURDAY
+ * </pre>
+ * Lines starting with '#' are comments; a line with only a name is the unchanged baseline.
+ */
+public class ScenarioCli {
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: ScenarioCli faculty.csv subjects.csv sections.csv scenarios.txt [threads]");
+            System.exit(2);
+        }
+        try {
+            MappedCsvLoader parser = new MappedCsvLoader();
+            List<Faculty> faculty = parser.loadFaculty(args[0]);
+            List<Subject> subjects = parser.loadSubjects(args[1]);
+            List<Section> sections = parser.loadSections(args[2]);
+            List<Scenario> scenarios = loadScenarios(args[3], faculty);
+            int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+            List<ScenarioResult> results = new ScenarioRunner(threads).run(faculty, subjects, sections, scenarios);
+            System.out.print(ScenarioResult.formatTable(results));
+        } catch (Exception e) {
+            System.err.println("Scenario run failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static List<Scenario> loadScenarios(String filePath, List<Faculty> baseFaculty) throws IOException {
+        List<Scenario> scenarios = new ArrayList<>();
+        int lineNo = 0;
+        for (String raw : Files.readAllLines(Paths.get(filePath))) {
+            lineNo++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] parts = line.split("\\|");
+            Scenario scenario = new Scenario(parts[0].trim());
+            for (int i = 1; i < parts.length; i++) {
+                String[] op = parts[i].trim().split("\\s+");
+                try {
+                    applyOperation(scenario, op, baseFaculty);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Line " + lineNo + ": bad operation '" + parts[i].trim()
+                            + "' (" + e.getMessage() + ")", e);
+                }
+            }
+            scenarios.add(scenario);
+        }
+        return scenarios;
+    }
+
+    private static void applyOperation(Scenario scenario, String[] op, List<Faculty> baseFaculty) {
+        switch (op[0].toLowerCase()) {
+            case "hire": {
+                int count = Integer.parseInt(op[1]);
+                String[] codes = op[2].split(";");
+                // Default contract: same as an existing teacher of the first subject
+                Faculty peer = baseFaculty.stream()
+                        .filter(f -> f.getPreferredSubjectCodes().contains(codes[0].trim()))
+                        .findFirst().orElse(null);
+                int workload = op.length > 3 ? Integer.parseInt(op[3]) : peer != null ? peer.getTotalWorkloadCredits() : 16;
+                int research = op.length > 4 ? Integer.parseInt(op[4]) : peer != null ? peer.getResearchCredits() : 0;
+                // Number hires across all hire ops of the scenario, skipping ids already taken
+                Set<String> taken = new HashSet<>();
+                baseFaculty.forEach(f -> taken.add(f.getId()));
+                scenario.getAddedFaculty().forEach(f -> taken.add(f.getId()));
+                int n = scenario.getAddedFaculty().size();
+                for (int hired = 0; hired < count; hired++) {
+                    String id;
+                    do {
+                        id = "NEW-" + scenario.getName() + "-" + ++n;
+                    } while (!taken.add(id));
+                    Faculty f = new Faculty(id, "New Hire " + n + " (" + op[2] + ")", workload, research);
+                    for (String code : codes)
+                        f.addPreferredSubject(code.trim());
+                    scenario.addFaculty(f);
+                }
+                break;
+            }
+            case "drop-faculty":
+                scenario.removeFaculty(op[1]);
+                break;
+            case "add-section": {
+                String name = String.join(" ", java.util.Arrays.copyOfRange(op, 3, op.length));
+                scenario.addSection(new Section(op[1], name.isEmpty() ? op[1] : name, Integer.parseInt(op[2])));
+                break;
+            }
+            case "drop-section":
+                scenario.removeSection(op[1]);
+                break;
+            case "drop-day":
+                scenario.removeDay(DayOfWeek.valueOf(op[1].toUpperCase()));
+                break;
+            default:
+                throw new IllegalArgumentException("unknown operation " + op[0]);
+        }
+    }
+}
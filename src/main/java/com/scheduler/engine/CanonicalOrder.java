@@ -0,0 +1,161 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Gene;
+import com.scheduler.model.Slot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Symmetry breaking for interchangeable theory hours.
+ *
+ * {@code createGenes} emits one gene per required hour of a theory course, all with the
+ * same section, subject and faculty, so any permutation of their slots is the same
+ * timetable. The canonical form keeps each such run of genes sorted by slot, which makes
+ * equivalent chromosomes identical gene-for-gene: a tabu move or a cache entry for one
+ * of them is a move or entry for all of them.
+ */
+class CanonicalOrder {
+
+    private static final Comparator<Slot> SLOT_ORDER = Comparator.comparing(Slot::getDay)
+            .thenComparing(Slot::getStartTime);
+
+    private final int[][] runs; // Template indices of interchangeable genes, in gene order
+    private final int[] runOfGene; // Per template index: run the gene belongs to, -1 if none
+
+    private CanonicalOrder(int[][] runs, int[] runOfGene) {
+        this.runs = runs;
+        this.runOfGene = runOfGene;
+    }
+
+    /**
+     * Collects the runs of adjacent single-gene groups that share section, subject and
+     * faculty. Only movable groups take part: swapping a slot into a pinned gene would
+     * unpin it in all but name.
+     */
+    static CanonicalOrder build(List<Gene> template, List<GeneGroup> groups, List<GeneGroup> movableGroups) {
+        Set<GeneGroup> movable = Collections.newSetFromMap(new IdentityHashMap<>());
+        movable.addAll(movableGroups);
+        int[] runOfGene = new int[template.size()];
+        Arrays.fill(runOfGene, -1);
+        List<int[]> runs = new ArrayList<>();
+
+        int i = 0;
+        while (i < groups.size()) {
+            int end = i + 1;
+            if (isInterchangeable(groups.get(i), movable)) {
+                Gene first = template.get(groups.get(i).gene(0));
+                while (end < groups.size() && isInterchangeable(groups.get(end), movable)
+                        && sameCourse(first, template.get(groups.get(end).gene(0)))) {
+                    end++;
+                }
+            }
+            if (end - i > 1) {
+                int[] run = new int[end - i];
+                for (int k = 0; k < run.length; k++) {
+                    run[k] = groups.get(i + k).gene(0);
+                    runOfGene[run[k]] = runs.size();
+                }
+                runs.add(run);
+            }
+            i = end;
+        }
+        return new CanonicalOrder(runs.toArray(new int[0][]), runOfGene);
+    }
+
+    /**
+     * Identifies the move "place this group": groups of the same run share an id, because
+     * after canonicalisation it no longer matters which of them was moved.
+     */
+    long moveOwner(GeneGroup group) {
+        int run = runOfGene[group.gene(0)];
+        return run < 0 ? group.gene(0) : -1 - run;
+    }
+
+    /**
+     * Sorts the slots of every run in place. Runs are short (a course's weekly hours), so
+     * an insertion sort is all that is needed.
+     */
+    void apply(List<Gene> genes) {
+        for (int[] run : runs) {
+            for (int k = 1; k < run.length; k++) {
+                Slot slot = genes.get(run[k]).getSlot();
+                int j = k - 1;
+                while (j >= 0 && SLOT_ORDER.compare(genes.get(run[j]).getSlot(), slot) > 0) {
+                    genes.get(run[j + 1]).setSlot(genes.get(run[j]).getSlot());
+                    j--;
+                }
+                genes.get(run[j + 1]).setSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * Recombines each run as a set: the child keeps the slots both parents agree on and
+     * fills the remaining hours with a random choice from the slots only one parent uses,
+     * skipping slots it already holds. A run therefore only ends up with two hours in one
+     * slot if a parent already had them there, and never with more hours in a slot than
+     * either parent. The child's genes must already exist; only the slots of run genes are
+     * overwritten.
+     */
+    void crossover(List<Gene> parent1, List<Gene> parent2, List<Gene> child, Random rand) {
+        for (int[] run : runs) {
+            List<Slot> fromParent2 = new ArrayList<>(run.length);
+            for (int index : run)
+                fromParent2.add(parent2.get(index).getSlot());
+
+            List<Slot> chosen = new ArrayList<>(run.length);
+            List<Slot> either = new ArrayList<>();
+            for (int index : run) {
+                Slot slot = parent1.get(index).getSlot();
+                if (fromParent2.remove(slot)) {
+                    chosen.add(slot);
+                } else {
+                    either.add(slot);
+                }
+            }
+            either.addAll(fromParent2);
+            Collections.shuffle(either, rand);
+            for (Slot slot : either) {
+                if (chosen.size() == run.length)
+                    break;
+                if (!chosen.contains(slot))
+                    chosen.add(slot);
+            }
+            for (int k = 0; chosen.size() < run.length; k++) {
+                // Parents with clashing hours: not enough distinct slots, so repeat one a parent repeats
+                Slot slot = either.get(k);
+                int most = Math.max(count(parent1, run, slot), count(parent2, run, slot));
+                if (Collections.frequency(chosen, slot) < most)
+                    chosen.add(slot);
+            }
+
+            for (int k = 0; k < run.length; k++)
+                child.get(run[k]).setSlot(chosen.get(k));
+        }
+    }
+
+    private static int count(List<Gene> genes, int[] run, Slot slot) {
+        int count = 0;
+        for (int index : run) {
+            if (genes.get(index).getSlot().equals(slot))
+                count++;
+        }
+        return count;
+    }
+
+    private static boolean isInterchangeable(GeneGroup group, Set<GeneGroup> movable) {
+        return !group.isBlock() && movable.contains(group);
+    }
+
+    private static boolean sameCourse(Gene a, Gene b) {
+        return a.getSection().equals(b.getSection()) && a.getSubject().equals(b.getSubject())
+                && a.getFaculty().equals(b.getFaculty());
+    }
+}
@@ -0,0 +1,46 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Section;
+import com.scheduler.model.Slot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A localized edit to an existing timetable: professors going on leave, new sections, or
+ * periods that can no longer be used.
+ */
+public class ChangeSet {
+    private final List<Faculty> removedFaculty = new ArrayList<>();
+    private final List<Section> addedSections = new ArrayList<>();
+    private final List<Slot> blockedSlots = new ArrayList<>();
+
+    public void removeFaculty(Faculty faculty) {
+        removedFaculty.add(faculty);
+    }
+
+    public void addSection(Section section) {
+        addedSections.add(section);
+    }
+
+    public void blockSlot(Slot slot) {
+        blockedSlots.add(slot);
+    }
+
+    public List<Faculty> getRemovedFaculty() {
+        return removedFaculty;
+    }
+
+    public List<Section> getAddedSections() {
+        return addedSections;
+    }
+
+    public List<Slot> getBlockedSlots() {
+        return blockedSlots;
+    }
+
+    public boolean isEmpty() {
+        return removedFaculty.isEmpty() && addedSections.isEmpty() && blockedSlots.isEmpty();
+    }
+}
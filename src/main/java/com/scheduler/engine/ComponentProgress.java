@@ -0,0 +1,58 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Score;
+
+/**
+ * Merges the progress of components solved in parallel into one report stream, so a
+ * {@link SolverProgress.Listener} sees a single run. Scores and evaluation counts are
+ * summed over the components, the generation is that of the slowest one, and the report
+ * marked finished comes once, when the last component ends. Nothing is reported until
+ * every component has reported once, so a sum never leaves one out.
+ *
+ * The summed score matches the merged timetable's except for the 8 AM balance term,
+ * which is computed over all faculty at once.
+ */
+final class ComponentProgress {
+
+    private final SolverProgress.Listener target;
+    private final SolverProgress[] latest; // Per component, null until its first report
+    private int reported;
+
+    ComponentProgress(SolverProgress.Listener target, int components) {
+        this.target = target;
+        this.latest = new SolverProgress[components];
+    }
+
+    SolverProgress.Listener forComponent(int component) {
+        return progress -> update(component, progress);
+    }
+
+    // Synchronized: component solvers report from their own threads
+    private synchronized void update(int component, SolverProgress progress) {
+        if (latest[component] == null)
+            reported++;
+        latest[component] = progress;
+        if (reported < latest.length)
+            return;
+
+        int generation = Integer.MAX_VALUE;
+        int bestHard = 0, bestSoft = 0, worstHard = 0, worstSoft = 0;
+        long evaluations = 0;
+        double perSecond = 0;
+        long elapsed = 0;
+        boolean finished = true;
+        for (SolverProgress p : latest) {
+            generation = Math.min(generation, p.getGeneration());
+            bestHard += p.getBest().getHard();
+            bestSoft += p.getBest().getSoft();
+            worstHard += p.getWorst().getHard();
+            worstSoft += p.getWorst().getSoft();
+            evaluations += p.getEvaluations();
+            perSecond += p.getEvaluationsPerSecond();
+            elapsed = Math.max(elapsed, p.getElapsedMillis());
+            finished &= p.isFinished();
+        }
+        target.progress(new SolverProgress(generation, new Score(bestHard, bestSoft), new Score(worstHard, worstSoft),
+                evaluations, perSecond, elapsed, finished));
+    }
+}
@@ -9,17 +9,43 @@ public class ConstraintSatisfaction {
     private final FitnessFunction fitnessFunction;
     private static final int TABU_TENURE = 10;
     private static final int MAX_ITERATIONS = 50;
+    private List<GeneGroup> movableGroups; // null = every gene is its own movable group
+    private CanonicalOrder canonicalOrder; // null = genes are not reordered after a move
+    private Random rand = new Random();
 
     public ConstraintSatisfaction(List<Slot> allSlots) {
         this.allSlots = allSlots;
         this.fitnessFunction = new FitnessFunction();
     }
 
+    /**
+     * Restricts repair moves to the given groups; genes outside them are treated as frozen.
+     * Lab blocks are moved as a whole to another start in their domain, so repair never
+     * splits a lab. Passing null makes every gene a movable single-slot group again.
+     */
+    void setMovableGroups(List<GeneGroup> groups) {
+        this.movableGroups = groups;
+    }
+
+    /**
+     * Keeps candidates in canonical form, so moving either of two interchangeable theory
+     * hours to the same slot is one tabu move rather than two.
+     */
+    void setCanonicalOrder(CanonicalOrder canonicalOrder) {
+        this.canonicalOrder = canonicalOrder;
+    }
+
+    /** Draws moves from {@code rand}, e.g. the seeded generator of the calling solver. */
+    void setRandom(Random rand) {
+        this.rand = rand;
+    }
+
     /**
      * Tries to repair a chromosome using Tabu Search if it has hard violations.
      */
     public Chromosome optimize(Chromosome chromosome) {
-        if (fitnessFunction.calculateHardViolations(chromosome) == 0) {
+        if (fitnessFunction.calculateHardViolations(chromosome) == 0
+                || (movableGroups != null && movableGroups.isEmpty())) {
             return chromosome;
         }
 
@@ -30,37 +56,34 @@ public class ConstraintSatisfaction {
         Chromosome best = current.deepClone();
         int bestViolations = fitnessFunction.calculateHardViolations(best);
 
-        // Tabu List: Stores "GeneIndex|SlotToString" hash or similar
-        Queue<String> tabuList = new LinkedList<>();
-        Set<String> tabuSet = new HashSet<>();
+        // Tabu List: moves encoded as owner * slotCount + start (owner may be negative, see CanonicalOrder)
+        Queue<Long> tabuList = new LinkedList<>();
+        Set<Long> tabuSet = new HashSet<>();
 
         for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
             if (bestViolations == 0)
                 break;
 
-            // Generate Neighborhood: focus on genes causing conflicts
-            // For simplicity in this wrapper, we pick a random gene involved in conflict
-            // and try swapping its slot.
-
-            // Identifying conflicting genes is complex without feedback from Fitness.
-            // Let's iterate all genes, find one with conflict?
-            // Or just random swap of ANY gene?
             // "Heuristic Local Search ... swap slots locally".
-
-            // Let's try to swap a random gene's slot to a random new slot.
-
+            // Move a random group to a random start in its domain.
             Chromosome candidate = current.deepClone();
-            int geneIdx = new Random().nextInt(candidate.getGenes().size());
-            Gene g = candidate.getGenes().get(geneIdx);
-
-            Slot oldSlot = g.getSlot();
-            Slot newSlot = allSlots.get(new Random().nextInt(allSlots.size()));
-
-            // Move move = new Move(geneIdx, newSlot);
-            String moveKey = geneIdx + "_" + newSlot.toString();
-
-            // Apply move
-            g.setSlot(newSlot);
+            long owner;
+            int start;
+            if (movableGroups == null) {
+                int geneIdx = rand.nextInt(candidate.getGenes().size());
+                owner = geneIdx;
+                start = rand.nextInt(allSlots.size());
+                candidate.getGenes().get(geneIdx).setSlot(allSlots.get(start));
+            } else {
+                GeneGroup group = movableGroups.get(rand.nextInt(movableGroups.size()));
+                owner = canonicalOrder == null ? group.gene(0) : canonicalOrder.moveOwner(group);
+                start = group.randomStart(rand);
+                group.place(candidate.getGenes(), allSlots, start);
+            }
+            if (canonicalOrder != null) {
+                canonicalOrder.apply(candidate.getGenes());
+            }
+            long moveKey = owner * allSlots.size() + start;
 
             // Eval
             int violations = fitnessFunction.calculateHardViolations(candidate);
@@ -0,0 +1,265 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns faculty to every (section, subject) as a min-cost flow instead of greedily.
+ *
+ * Flow is measured in credits: each class asks for team size x credits, each eligible
+ * faculty member can take at most the course's credits of it (so a lab team has
+ * distinct members), and each faculty member passes at most their remaining teaching
+ * credits to the sink. The cost of a faculty member's k-th credit grows with k relative to
+ * their limit, a convex cost that spreads load evenly. Labs are cheaper for the faculty
+ * member teaching the section's theory course, so they follow their students into the lab
+ * whenever the load allows.
+ *
+ * The flow may split one course's credits between faculty, so it is only a relaxation of
+ * the real problem, which is a generalized assignment. The classes are therefore fixed by a
+ * depth-first search that uses the flow as its guide and its bound: at every node the flow
+ * is solved over the classes still open, a node whose flow cannot place every credit is
+ * abandoned, and the first split class (or, when none is split, the next class) is tried
+ * with each team that fits, the members carrying most of its flow first. When the flow
+ * leaves every class whole it is taken as is. Theory courses are fixed before labs so the
+ * lab preference knows who teaches the theory.
+ *
+ * The search is exact: it fails only if no assignment within the workload limits exists.
+ * Its worst case is exponential in the number of classes, but the flow bound prunes early
+ * and on typical inputs the first flow is already whole or needs a few roundings.
+ */
+class FacultyAssignment {
+
+    private static final long SCALE = 1000; // Marginal cost of the last credit of a full load
+    private static final long PREFERENCE = 4 * SCALE; // Lab taught without its theory professor
+
+    private final List<Faculty> facultyList;
+    private final Map<Faculty, Double> currentLoad;
+    private final Map<Faculty, Integer> index = new HashMap<>();
+    private int sent; // Credits placed and asked for by the last flow
+    private int needed;
+
+    private static final class Demand {
+        final Section section;
+        final Subject subject;
+        final int team;
+        final List<Faculty> eligible;
+        Demand theory; // Labs: the section's theory course
+        List<Faculty> assigned;
+
+        Demand(Section section, Subject subject, int team, List<Faculty> eligible) {
+            this.section = section;
+            this.subject = subject;
+            this.team = team;
+            this.eligible = eligible;
+        }
+    }
+
+    /** {@code currentLoad} is updated in place, as {@link TimetableGenerator} does. */
+    FacultyAssignment(List<Faculty> facultyList, Map<Faculty, Double> currentLoad) {
+        this.facultyList = facultyList;
+        this.currentLoad = currentLoad;
+        for (Faculty f : facultyList) {
+            currentLoad.putIfAbsent(f, 0.0);
+            index.put(f, index.size());
+        }
+    }
+
+    List<Gene> createGenes(List<Subject> subjectList, List<Section> sectionList) {
+        List<Demand> demands = new ArrayList<>();
+        Map<String, Demand> theoryByKey = new HashMap<>();
+        for (boolean lab : new boolean[] { false, true }) {
+            for (Section section : sectionList) {
+                for (Subject subject : subjectList) {
+                    if (subject.isLab() != lab)
+                        continue;
+                    List<Faculty> eligible = facultyList.stream()
+                            .filter(f -> f.getPreferredSubjectCodes().contains(subject.getCode()))
+                            .collect(Collectors.toList());
+                    if (eligible.isEmpty()) {
+                        throw new IllegalStateException("No faculty found for " + subject.getName());
+                    }
+                    Demand d = new Demand(section, subject, lab ? TimetableGenerator.labTeamSize(subject) : 1,
+                            eligible);
+                    if (lab) {
+                        d.theory = theoryByKey.get(section.getId() + "_" + subject.getCode().replace("_L", ""));
+                    } else {
+                        theoryByKey.put(section.getId() + "_" + subject.getCode(), d);
+                    }
+                    demands.add(d);
+                }
+            }
+        }
+
+        Map<Demand, Map<Faculty, Integer>> flows = solve(demands);
+        if (flows == null) {
+            throw new IllegalStateException("Faculty workload limits cannot cover all classes: only " + sent
+                    + " of " + needed + " credits can be assigned");
+        }
+        if (!place(demands, flows)) {
+            throw new IllegalStateException("Faculty workload limits cannot cover all classes: the credits only"
+                    + " fit if some course is split between faculty");
+        }
+
+        List<Gene> genes = new ArrayList<>();
+        for (Demand d : demands) {
+            for (int i = 0; i < d.subject.getHoursRequired(); i++) {
+                genes.add(new Gene(null, d.section, d.subject,
+                        d.subject.isLab() ? d.assigned : Collections.singletonList(d.assigned.get(0))));
+            }
+        }
+        return genes;
+    }
+
+    /**
+     * Fixes the open classes, or returns false with every load and assignment as it was
+     * if they cannot all be fixed. {@code flows} is the flow over {@code open}, or null if
+     * it could not place every credit.
+     */
+    private boolean place(List<Demand> open, Map<Demand, Map<Faculty, Integer>> flows) {
+        if (flows == null)
+            return false;
+        if (open.isEmpty())
+            return true;
+
+        boolean theoryLeft = open.stream().anyMatch(d -> !d.subject.isLab());
+        List<Demand> next = new ArrayList<>();
+        Demand split = null;
+        for (Demand d : open) {
+            if (d.subject.isLab() && theoryLeft)
+                continue;
+            next.add(d);
+            if (split == null && whole(d, flows.get(d)).size() != d.team)
+                split = d;
+        }
+
+        if (split == null) {
+            // Take the flow as is; the labs are solved again once their theory professor is known
+            for (Demand d : next)
+                assign(d, whole(d, flows.get(d)));
+            List<Demand> rest = new ArrayList<>(open);
+            rest.removeAll(next);
+            if (rest.isEmpty() || place(rest, solve(rest)))
+                return true;
+            for (Demand d : next)
+                unassign(d);
+        }
+
+        Demand branch = split != null ? split : next.get(0);
+        List<Demand> rest = new ArrayList<>(open);
+        rest.remove(branch);
+        for (List<Faculty> team : teams(branch, flows.get(branch))) {
+            assign(branch, team);
+            if (place(rest, solve(rest)))
+                return true;
+            unassign(branch);
+        }
+        return false;
+    }
+
+    private static List<Faculty> whole(Demand d, Map<Faculty, Integer> flow) {
+        int credits = d.subject.getCredits();
+        return flow.entrySet().stream()
+                .filter(e -> e.getValue() == credits && credits > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /** Every team that fits a class, members carrying most of its flow first. */
+    private List<List<Faculty>> teams(Demand d, Map<Faculty, Integer> flow) {
+        int credits = d.subject.getCredits();
+        List<Faculty> candidates = flow.keySet().stream()
+                .filter(f -> currentLoad.get(f) + credits <= f.getMaxTeachingCredits())
+                .sorted(Comparator.comparing((Faculty f) -> -flow.get(f)).thenComparingDouble(currentLoad::get))
+                .collect(Collectors.toList());
+        List<List<Faculty>> teams = new ArrayList<>();
+        addTeams(candidates, 0, d.team, new ArrayList<>(), teams);
+        return teams;
+    }
+
+    private static void addTeams(List<Faculty> candidates, int from, int size, List<Faculty> team,
+            List<List<Faculty>> teams) {
+        if (team.size() == size) {
+            teams.add(new ArrayList<>(team));
+            return;
+        }
+        for (int i = from; i <= candidates.size() - (size - team.size()); i++) {
+            team.add(candidates.get(i));
+            addTeams(candidates, i + 1, size, team, teams);
+            team.remove(team.size() - 1);
+        }
+    }
+
+    /**
+     * Min-cost flow over the open classes; returns the credits each member carries per class,
+     * or null if the flow cannot place every credit.
+     */
+    private Map<Demand, Map<Faculty, Integer>> solve(List<Demand> open) {
+        int source = 0;
+        int sink = 1;
+        int firstFaculty = 2 + open.size();
+        MinCostFlow network = new MinCostFlow(firstFaculty + facultyList.size());
+
+        needed = 0;
+        Map<Demand, Map<Faculty, Integer>> edges = new HashMap<>();
+        for (int i = 0; i < open.size(); i++) {
+            Demand d = open.get(i);
+            int credits = d.subject.getCredits();
+            needed += d.team * credits;
+            network.addEdge(source, 2 + i, d.team * credits, 0);
+            Faculty theoryProf = theoryProfessor(d);
+            Set<Faculty> candidates = new LinkedHashSet<>(d.eligible);
+            if (theoryProf != null)
+                candidates.add(theoryProf);
+            Map<Faculty, Integer> byFaculty = new LinkedHashMap<>();
+            for (Faculty f : candidates) {
+                long cost = d.subject.isLab() && theoryProf != null && f != theoryProf ? PREFERENCE : 0;
+                byFaculty.put(f, network.addEdge(2 + i, firstFaculty + index.get(f), credits, cost));
+            }
+            edges.put(d, byFaculty);
+        }
+
+        for (Faculty f : facultyList) {
+            int limit = f.getMaxTeachingCredits();
+            double load = currentLoad.get(f);
+            int used = (int) Math.ceil(load);
+            int remaining = (int) Math.floor(limit - load);
+            for (int k = used; k < used + remaining; k++) // Convex: one edge per credit
+                network.addEdge(firstFaculty + index.get(f), sink, 1, SCALE * (2 * k + 1) / (2 * limit));
+        }
+
+        sent = network.run(source, sink, needed);
+        if (sent < needed)
+            return null;
+
+        Map<Demand, Map<Faculty, Integer>> flows = new HashMap<>();
+        edges.forEach((d, byFaculty) -> {
+            Map<Faculty, Integer> flow = new LinkedHashMap<>();
+            byFaculty.forEach((f, edge) -> flow.put(f, network.flow(edge)));
+            flows.put(d, flow);
+        });
+        return flows;
+    }
+
+    private void assign(Demand d, List<Faculty> team) {
+        // Theory professor first, as the greedy assignment does
+        Faculty theoryProf = theoryProfessor(d);
+        List<Faculty> ordered = new ArrayList<>(team);
+        if (theoryProf != null && ordered.remove(theoryProf))
+            ordered.add(0, theoryProf);
+        for (Faculty f : ordered)
+            currentLoad.put(f, currentLoad.get(f) + d.subject.getCredits());
+        d.assigned = ordered;
+    }
+
+    private void unassign(Demand d) {
+        for (Faculty f : d.assigned)
+            currentLoad.put(f, currentLoad.get(f) - d.subject.getCredits());
+        d.assigned = null;
+    }
+
+    private static Faculty theoryProfessor(Demand d) {
+        return d.theory == null || d.theory.assigned == null ? null : d.theory.assigned.get(0);
+    }
+}
@@ -0,0 +1,255 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Section;
+import com.scheduler.model.Slot;
+import com.scheduler.model.Subject;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Checks run on the raw inputs before any search, to reject instances that no timetable
+ * can satisfy in milliseconds instead of after the solver stagnates. Every check is a
+ * necessary condition, so an ERROR means the instance really is infeasible; passing all
+ * of them does not guarantee a solution.
+ *
+ * - Section hours: every section takes every subject, so its weekly hours must fit in
+ *   the slot grid.
+ * - Lab windows: a lab of n hours needs n consecutive slots of one day. For each block
+ *   size, the labs that need at least that many slots must fit side by side in the runs
+ *   of consecutive slots.
+ * - Faculty capacity: a max flow of credits from subjects to eligible faculty, each
+ *   capped by their teaching limit and by their available slots (every credit takes at
+ *   least one hour). Subjects left short by the flow are reported.
+ * - Saturday and afternoon capacity: warns when sections cannot avoid Saturday or
+ *   afternoon classes.
+ */
+public final class FeasibilityCheck {
+
+    public static final class Diagnostic {
+        public enum Severity {
+            ERROR, // No timetable can satisfy the hard constraints
+            WARNING // Feasible, but worth knowing before solving
+        }
+
+        public enum Kind {
+            SECTION_HOURS, LAB_WINDOWS, FACULTY_CAPACITY, SLOT_CAPACITY
+        }
+
+        private final Severity severity;
+        private final Kind kind;
+        private final String entity; // Subject, faculty member or section concerned; null if global
+        private final String message;
+
+        Diagnostic(Severity severity, Kind kind, String entity, String message) {
+            this.severity = severity;
+            this.kind = kind;
+            this.entity = entity;
+            this.message = message;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getEntity() {
+            return entity;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return severity + " [" + kind + "] " + message;
+        }
+    }
+
+    /** Thrown by {@link #requireFeasible} with every diagnostic of the failed check. */
+    public static class InfeasibleException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Diagnostic> diagnostics;
+
+        InfeasibleException(List<Diagnostic> diagnostics) {
+            super("Input cannot be scheduled:\n" + diagnostics.stream()
+                    .filter(d -> d.getSeverity() == Diagnostic.Severity.ERROR)
+                    .map(Diagnostic::getMessage)
+                    .collect(Collectors.joining("\n")));
+            this.diagnostics = diagnostics;
+        }
+
+        public List<Diagnostic> getDiagnostics() {
+            return diagnostics;
+        }
+    }
+
+    private FeasibilityCheck() {
+    }
+
+    public static List<Diagnostic> check(List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList, List<Slot> slots) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (sectionList.isEmpty() || subjectList.isEmpty())
+            return diagnostics;
+        checkSectionHours(subjectList, slots, diagnostics);
+        checkLabWindows(subjectList, slots, diagnostics);
+        checkFacultyCapacity(facultyList, subjectList, sectionList.size(), slots, diagnostics);
+        return diagnostics;
+    }
+
+    /**
+     * Throws {@link InfeasibleException} if {@link #check} reports any error; otherwise
+     * returns its warnings.
+     */
+    static List<Diagnostic> requireFeasible(List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList, List<Slot> slots) {
+        List<Diagnostic> diagnostics = check(facultyList, subjectList, sectionList, slots);
+        if (diagnostics.stream().anyMatch(d -> d.getSeverity() == Diagnostic.Severity.ERROR))
+            throw new InfeasibleException(diagnostics);
+        return diagnostics;
+    }
+
+    private static void checkSectionHours(List<Subject> subjectList, List<Slot> slots, List<Diagnostic> out) {
+        int hours = subjectList.stream().mapToInt(Subject::getHoursRequired).sum();
+        if (hours > slots.size()) {
+            out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.SECTION_HOURS, null,
+                    "Each section needs " + hours + " hours a week but there are only " + slots.size() + " slots"));
+            return;
+        }
+
+        int saturday = (int) slots.stream().filter(s -> s.getDay() == DayOfWeek.SATURDAY).count();
+        int afternoon = (int) slots.stream().filter(s -> s.getType() == Slot.Type.AFTERNOON).count();
+        if (saturday > 0 && hours > slots.size() - saturday) {
+            out.add(new Diagnostic(Diagnostic.Severity.WARNING, Diagnostic.Kind.SLOT_CAPACITY, null,
+                    "Each section needs " + hours + " hours, so at least " + (hours - (slots.size() - saturday))
+                            + " of its classes fall on Saturday"));
+        }
+        if (afternoon > 0 && hours > slots.size() - afternoon) {
+            out.add(new Diagnostic(Diagnostic.Severity.WARNING, Diagnostic.Kind.SLOT_CAPACITY, null,
+                    "Each section needs " + hours + " hours, so at least " + (hours - (slots.size() - afternoon))
+                            + " of its classes fall in the afternoon"));
+        }
+    }
+
+    private static void checkLabWindows(List<Subject> subjectList, List<Slot> slots, List<Diagnostic> out) {
+        List<Integer> runs = runs(slots);
+        int longest = runs.stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        TreeSet<Integer> sizes = new TreeSet<>();
+        for (Subject s : subjectList) {
+            if (!s.isLab())
+                continue;
+            if (s.getHoursRequired() > longest) {
+                out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.LAB_WINDOWS, s.getName(),
+                        "Lab " + s.getName() + " needs " + s.getHoursRequired()
+                                + " consecutive slots but the longest run of consecutive slots is " + longest));
+            } else {
+                sizes.add(s.getHoursRequired());
+            }
+        }
+
+        // Blocks of at least n slots each use one of floor(run / n) disjoint windows of n
+        for (int size : sizes) {
+            long labs = subjectList.stream().filter(s -> s.isLab() && s.getHoursRequired() >= size).count();
+            int windows = runs.stream().mapToInt(r -> r / size).sum();
+            if (labs > windows) {
+                out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.LAB_WINDOWS, null,
+                        "Each section has " + labs + " labs of " + size + " or more hours but only " + windows
+                                + " such blocks fit side by side in a week"));
+            }
+        }
+    }
+
+    private static void checkFacultyCapacity(List<Faculty> facultyList, List<Subject> subjectList, int sections,
+            List<Slot> slots, List<Diagnostic> out) {
+        int errors = out.size();
+        List<List<Faculty>> eligible = new ArrayList<>();
+        for (Subject s : subjectList) {
+            List<Faculty> teachers = facultyList.stream()
+                    .filter(f -> f.getPreferredSubjectCodes().contains(s.getCode()))
+                    .collect(Collectors.toList());
+            eligible.add(teachers);
+            int team = s.isLab() ? TimetableGenerator.labTeamSize(s) : 1;
+            if (teachers.size() < team) {
+                out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.FACULTY_CAPACITY, s.getName(),
+                        teachers.isEmpty() ? "No faculty found for " + s.getName()
+                                : "Lab " + s.getName() + " needs " + team + " faculty but only " + teachers.size()
+                                        + " can teach it"));
+            }
+        }
+        if (out.size() > errors)
+            return; // The flow would only restate these
+
+        // Source -> subject (credits x team x sections) -> eligible faculty (credits x sections) -> sink
+        int source = 0;
+        int sink = 1;
+        int firstFaculty = 2 + subjectList.size();
+        MinCostFlow network = new MinCostFlow(firstFaculty + facultyList.size());
+        Map<Faculty, Integer> index = new HashMap<>();
+        for (Faculty f : facultyList)
+            index.putIfAbsent(f, index.size());
+        int[] demandEdge = new int[subjectList.size()];
+        int[] demand = new int[subjectList.size()];
+        int needed = 0;
+        for (int i = 0; i < subjectList.size(); i++) {
+            Subject s = subjectList.get(i);
+            int team = s.isLab() ? TimetableGenerator.labTeamSize(s) : 1;
+            demand[i] = s.getCredits() * team * sections;
+            needed += demand[i];
+            demandEdge[i] = network.addEdge(source, 2 + i, demand[i], 0);
+            for (Faculty f : eligible.get(i))
+                network.addEdge(2 + i, firstFaculty + index.get(f), s.getCredits() * sections, 0);
+        }
+        for (int k = 0; k < facultyList.size(); k++) {
+            Faculty f = facultyList.get(k);
+            int available = Long.bitCount(GeneGroup.availableMask(f, slots));
+            network.addEdge(firstFaculty + k, sink, Math.max(0, Math.min(f.getMaxTeachingCredits(), available)), 0);
+        }
+
+        int sent = network.run(source, sink, needed);
+        if (sent == needed)
+            return;
+        out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.FACULTY_CAPACITY, null,
+                "Faculty workload limits and availability cover only " + sent + " of the " + needed
+                        + " teaching credits needed"));
+        for (int i = 0; i < subjectList.size(); i++) {
+            int shortBy = demand[i] - network.flow(demandEdge[i]);
+            if (shortBy > 0) {
+                Subject s = subjectList.get(i);
+                out.add(new Diagnostic(Diagnostic.Severity.ERROR, Diagnostic.Kind.FACULTY_CAPACITY, s.getName(),
+                        s.getName() + " is short of " + shortBy + " of " + demand[i] + " faculty credits"));
+            }
+        }
+    }
+
+    /** Lengths of the maximal runs of consecutive slots (same day, each starting as the last ends). */
+    private static List<Integer> runs(List<Slot> slots) {
+        if (slots.isEmpty())
+            return Collections.emptyList();
+        List<Integer> runs = new ArrayList<>();
+        int length = 1;
+        for (int p = 1; p < slots.size(); p++) {
+            if (GeneGroup.isValidBlock(slots, p - 1, 2)) {
+                length++;
+            } else {
+                runs.add(length);
+                length = 1;
+            }
+        }
+        runs.add(length);
+        return runs;
+    }
+}
@@ -2,264 +2,494 @@ package com.scheduler.engine;
 
 import com.scheduler.model.*;
 import java.time.DayOfWeek;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.ToIntFunction;
 
 public class FitnessFunction {
 
+    private static final int MAX_SLOTS = EntityRegistry.MAX_SLOTS;
+    private static final int DAYS = DayOfWeek.values().length;
+
+    // --- SOFT VIOLATIONS ---
+    private final List<ToIntFunction<Indexed>> softTerms = List.of(
+            this::checkFacultyClumping, // 3-hour gaps
+            this::checkMorningBalance, // Std Dev of 8 AM
+            this::checkStudentFatigue, // >3 consecutive hours
+            this::checkSectionGaps, // General gaps (Student Friendly)
+            this::checkSubjectDistribution); // 2 high credit/1 low credit rule
+
+    private volatile LocalIds localIds; // Numbering of the last template seen
+
+    /**
+     * (HardViolations, SoftViolations), compared lexicographically. Both are computed from
+     * one indexed pass over the genes.
+     */
+    public Score calculateScore(Chromosome chromosome) {
+        Indexed ix = index(chromosome.getGenes());
+        return new Score(hardViolations(ix), softViolations(ix));
+    }
+
+    /**
+     * Bounded evaluation: scores the chromosome only if it is strictly better than the
+     * packed {@code cutoff} (e.g. the worst member of the population) and returns null
+     * ("rejected") otherwise. Hard constraints are evaluated first; if they already reach
+     * the cutoff, or the hard count ties it and the soft terms summed so far reach it, the
+     * remaining soft terms are skipped.
+     */
+    public Score calculateScore(Chromosome chromosome, long cutoff) {
+        Indexed ix = index(chromosome.getGenes());
+        int hard = hardViolations(ix);
+        if (Score.pack(hard, 0) >= cutoff)
+            return null;
+        if (hard < (int) (cutoff >>> 32))
+            return new Score(hard, softViolations(ix)); // Beats the cutoff whatever the soft terms say
+
+        int softBudget = (int) cutoff; // Same hard count: soft has to stay below this
+        int soft = 0;
+        for (ToIntFunction<Indexed> term : softTerms) {
+            soft += term.applyAsInt(ix);
+            if (soft >= softBudget)
+                return null;
+        }
+        return new Score(hard, soft);
+    }
+
     /**
      * Fitness = 1 / (1 + HardViolations * 100 + SoftViolations)
+     * Kept for callers that want a single double; the engines compare {@link Score}s.
      */
     public double calculateFitness(Chromosome chromosome) {
-        int hardViolations = 0;
-        int softViolations = 0;
-        List<Gene> genes = chromosome.getGenes();
+        return calculateScore(chromosome).toFitness();
+    }
+
+    public int calculateHardViolations(Chromosome chromosome) {
+        return hardViolations(index(chromosome.getGenes()));
+    }
 
+    public int calculateSoftViolations(Chromosome chromosome) {
+        return softViolations(index(chromosome.getGenes()));
+    }
+
+    private Indexed index(List<Gene> genes) {
+        LocalIds ids = localIds;
+        if (ids == null || !ids.covers(genes))
+            localIds = ids = new LocalIds(genes);
+        return new Indexed(genes, ids);
+    }
+
+    private int hardViolations(Indexed ix) {
         // --- HARD VIOLATIONS ---
-        hardViolations += checkFacultyDoubleBooking(genes);
-        hardViolations += checkSectionDoubleBooking(genes);
-        hardViolations += checkFacultyWorkload(genes); // Credit limit
-        hardViolations += checkLabConsecutiveness(genes); // Labs must be pairs
-
-        // --- SOFT VIOLATIONS ---
-        softViolations += checkFacultyClumping(genes); // 3-hour gaps
-        softViolations += checkMorningBalance(genes); // Std Dev of 8 AM
-        softViolations += checkStudentFatigue(genes); // >3 consecutive hours
-        softViolations += checkSectionGaps(genes); // General gaps (Student Friendly)
-        softViolations += checkSubjectDistribution(genes); // 2 high credit/1 low credit rule
-
-        return 1.0 / (1.0 + (hardViolations * 100) + softViolations);
+        // Lab consecutiveness is not checked: labs are block genes (GeneGroup) whose domain
+        // only holds consecutive slots, so a split lab cannot be produced.
+        return ix.facultyClashes + // Faculty double booking
+                ix.sectionClashes + // Section double booking
+                ix.unavailableBookings + // Faculty booked while unavailable
+                checkFacultyWorkload(ix); // Credit limit
     }
 
-    public int calculateHardViolations(Chromosome chromosome) {
-        List<Gene> genes = chromosome.getGenes();
-        return checkFacultyDoubleBooking(genes) +
-                checkSectionDoubleBooking(genes) +
-                checkFacultyWorkload(genes) +
-                checkLabConsecutiveness(genes);
+    private int softViolations(Indexed ix) {
+        int soft = 0;
+        for (ToIntFunction<Indexed> term : softTerms)
+            soft += term.applyAsInt(ix);
+        return soft;
     }
 
-    // --- HEURISTICS ---
+    /**
+     * Local numbering of the sections, subjects and faculty of a gene list. Registry
+     * ordinals are process-wide and keep growing as datasets and scenarios are loaded, so
+     * per-entity arrays are sized by these dense ids instead. Every chromosome of one
+     * template shares the mapping; it is immutable, so parallel evaluations can share it.
+     */
+    private static final class LocalIds {
+        final int[] section; // Registry ordinal -> local id, -1 if absent
+        final int[] subject;
+        final int[] faculty;
+        final int sectionCount;
+        final int subjectCount;
+        final int facultyCount;
 
-    private int checkFacultyClumping(List<Gene> genes) {
-        // "Penalize any schedule where a faculty member has a 3-hour gap between two
-        // 1-hour classes."
-        int penalty = 0;
-        Map<Faculty, List<Slot>> facultySlots = new HashMap<>();
+        LocalIds(List<Gene> genes) {
+            int maxSection = -1, maxSubject = -1, maxFaculty = -1;
+            for (Gene g : genes) {
+                maxSection = Math.max(maxSection, g.getSection().getOrdinal());
+                maxSubject = Math.max(maxSubject, g.getSubject().getOrdinal());
+                for (Faculty f : g.getFaculty())
+                    maxFaculty = Math.max(maxFaculty, f.getOrdinal());
+            }
+            section = filled(maxSection + 1);
+            subject = filled(maxSubject + 1);
+            faculty = filled(maxFaculty + 1);
 
-        for (Gene g : genes) {
-            for (Faculty f : g.getFaculty()) {
-                facultySlots.putIfAbsent(f, new ArrayList<>());
-                facultySlots.get(f).add(g.getSlot());
+            int sections = 0, subjects = 0, members = 0;
+            for (Gene g : genes) {
+                int o = g.getSection().getOrdinal();
+                if (section[o] < 0)
+                    section[o] = sections++;
+                o = g.getSubject().getOrdinal();
+                if (subject[o] < 0)
+                    subject[o] = subjects++;
+                for (Faculty f : g.getFaculty()) {
+                    o = f.getOrdinal();
+                    if (faculty[o] < 0)
+                        faculty[o] = members++;
+                }
             }
+            sectionCount = sections;
+            subjectCount = subjects;
+            facultyCount = members;
         }
 
-        for (List<Slot> slots : facultySlots.values()) {
-            Map<DayOfWeek, List<Slot>> daySlots = slots.stream().collect(Collectors.groupingBy(Slot::getDay));
-            for (List<Slot> ds : daySlots.values()) {
-                ds.sort(Comparator.comparing(Slot::getStartTime));
-                for (int i = 0; i < ds.size() - 1; i++) {
-                    long gapMinutes = java.time.Duration.between(ds.get(i).getEndTime(), ds.get(i + 1).getStartTime())
-                            .toMinutes();
-                    // 3 hours gap approx 180 mins.
-                    // Lets say if gap is around 160-200 mins.
-                    // Or "Last class ended 10:00, Next starts 13:00" -> 3 hours.
-                    if (gapMinutes >= 160) {
-                        penalty += 1;
-                    }
+        boolean covers(List<Gene> genes) {
+            for (Gene g : genes) {
+                if (!has(section, g.getSection().getOrdinal()) || !has(subject, g.getSubject().getOrdinal()))
+                    return false;
+                for (Faculty f : g.getFaculty()) {
+                    if (!has(faculty, f.getOrdinal()))
+                        return false;
                 }
             }
+            return true;
         }
-        return penalty;
-    }
 
-    private int checkStudentFatigue(List<Gene> genes) {
-        // "More than 3 consecutive hours for a student section."
-        int penalty = 0;
-        Map<String, List<Slot>> sectionSlots = new HashMap<>();
-        for (Gene g : genes) {
-            sectionSlots.putIfAbsent(g.getSection().getId(), new ArrayList<>());
-            sectionSlots.get(g.getSection().getId()).add(g.getSlot());
+        private static boolean has(int[] ids, int ordinal) {
+            return ordinal < ids.length && ids[ordinal] >= 0;
         }
 
-        for (List<Slot> slots : sectionSlots.values()) {
-            Map<DayOfWeek, List<Slot>> daySlots = slots.stream().collect(Collectors.groupingBy(Slot::getDay));
-            for (List<Slot> ds : daySlots.values()) {
-                ds.sort(Comparator.comparing(Slot::getStartTime));
-                int consecutive = 1;
-                for (int i = 0; i < ds.size() - 1; i++) {
-                    // Check strictly adjacent (ignoring break if we consider break resets fatigue?
-                    // Usually break DOES reset fatigue. So consecutive means NO breaks.
-                    // But user said "3 consecutive hours".
-
-                    // If End(i) == Start(i+1) -> Consecutive
-                    if (ds.get(i).getEndTime().equals(ds.get(i + 1).getStartTime())) {
-                        consecutive++;
+        private static int[] filled(int length) {
+            int[] ids = new int[length];
+            Arrays.fill(ids, -1);
+            return ids;
+        }
+    }
+
+    /**
+     * Dense view of a gene list built in a single pass: entities are replaced by their
+     * {@link LocalIds} and per-entity slot sets by {@code long} bitmasks, so none of the
+     * checks below hashes an object or builds a key string.
+     */
+    private static final class Indexed {
+        final int size;
+        final int[] slot; // Per gene: chronological slot ordinal
+        final int[] section;
+        final int[] subject;
+        final int[][] faculty;
+        final boolean[] lab;
+
+        // Per slot ordinal
+        final int[] startMin = new int[MAX_SLOTS];
+        final int[] endMin = new int[MAX_SLOTS];
+        final long[] dayMask = new long[DAYS];
+
+        // Per local section / faculty id
+        final long[] sectionMask;
+        final int[] sectionDayCount; // section * DAYS + day
+        final long[] facultyMask;
+        final double[] facultyCredits;
+        final int[] morningCount;
+        final Faculty[] facultyById;
+        final int[] subjectCredits;
+        int sectionClashes;
+        int facultyClashes;
+        int unavailableBookings;
+
+        Indexed(List<Gene> genes, LocalIds ids) {
+            size = genes.size();
+            slot = new int[size];
+            section = new int[size];
+            subject = new int[size];
+            faculty = new int[size][];
+            lab = new boolean[size];
+
+            Map<Slot, Integer> localSlots = hasDenseSlots(genes) ? null : localSlotOrdinals(genes);
+            for (int i = 0; i < size; i++) {
+                Gene g = genes.get(i);
+                Slot s = g.getSlot();
+                int so = localSlots == null ? s.getOrdinal() : localSlots.get(s);
+                slot[i] = so;
+                startMin[so] = EntityRegistry.minuteOfDay(s.getStartTime());
+                endMin[so] = EntityRegistry.minuteOfDay(s.getEndTime());
+                dayMask[s.getDay().ordinal()] |= 1L << so;
+
+                section[i] = ids.section[g.getSection().getOrdinal()];
+                subject[i] = ids.subject[g.getSubject().getOrdinal()];
+                lab[i] = g.getSubject().isLab();
+
+                List<Faculty> team = g.getFaculty();
+                int[] fo = new int[team.size()];
+                for (int k = 0; k < fo.length; k++)
+                    fo[k] = ids.faculty[team.get(k).getOrdinal()];
+                faculty[i] = fo;
+            }
+
+            sectionMask = new long[ids.sectionCount];
+            sectionDayCount = new int[ids.sectionCount * DAYS];
+            facultyMask = new long[ids.facultyCount];
+            facultyCredits = new double[ids.facultyCount];
+            morningCount = new int[ids.facultyCount];
+            facultyById = new Faculty[ids.facultyCount];
+            subjectCredits = new int[ids.subjectCount];
+
+            for (int i = 0; i < size; i++) {
+                Gene g = genes.get(i);
+                long bit = 1L << slot[i];
+                int sec = section[i];
+                if ((sectionMask[sec] & bit) != 0) {
+                    sectionClashes++;
+                } else {
+                    sectionMask[sec] |= bit;
+                }
+                sectionDayCount[sec * DAYS + g.getSlot().getDay().ordinal()]++;
+                subjectCredits[subject[i]] = g.getSubject().getCredits();
+
+                double creditValue = lab[i] ? 0.5 : 1.0;
+                boolean morning = g.getSlot().getStartTime().getHour() == 8; // 8 AM slot
+                for (int k = 0; k < faculty[i].length; k++) {
+                    int f = faculty[i][k];
+                    Faculty member = g.getFaculty().get(k);
+                    facultyById[f] = member;
+                    if (!member.getUnavailableWindows().isEmpty() && !member.isAvailable(g.getSlot())) {
+                        unavailableBookings++;
+                    }
+                    if ((facultyMask[f] & bit) != 0) {
+                        facultyClashes++;
                     } else {
-                        // Gap/Break found
-                        if (consecutive > 3)
-                            penalty += (consecutive - 3);
-                        consecutive = 1;
+                        facultyMask[f] |= bit;
                     }
+                    facultyCredits[f] += creditValue;
+                    if (morning)
+                        morningCount[f]++;
                 }
-                if (consecutive > 3)
-                    penalty += (consecutive - 3);
             }
         }
-        return penalty;
-    }
 
-    private int checkMorningBalance(List<Gene> genes) {
-        // "Assign a higher fitness score to schedules where the 8 AM slots are
-        // distributed standard-deviation-wise across the faculty list."
-        // We want LOW StdDev.
-        Map<Faculty, Integer> morningCounts = new HashMap<>();
-        for (Gene gene : genes) {
-            if (gene.getSlot().getStartTime().getHour() == 8) { // 8 AM slot
-                for (Faculty f : gene.getFaculty()) {
-                    morningCounts.put(f, morningCounts.getOrDefault(f, 0) + 1);
-                }
+        private static boolean hasDenseSlots(List<Gene> genes) {
+            for (Gene g : genes) {
+                int o = g.getSlot().getOrdinal();
+                if (o < 0 || o >= MAX_SLOTS)
+                    return false;
             }
+            return true;
         }
 
-        if (morningCounts.isEmpty())
-            return 0;
-        double avg = morningCounts.values().stream().mapToInt(Integer::intValue).average().orElse(0);
-        double variance = 0;
-        for (int count : morningCounts.values()) {
-            variance += Math.pow(count - avg, 2);
+        /**
+         * Fallback for slots that were never registered (hand-built test data, imported
+         * timetables): number the distinct slots of this gene list chronologically.
+         */
+        private static Map<Slot, Integer> localSlotOrdinals(List<Gene> genes) {
+            TreeSet<Slot> distinct = new TreeSet<>(
+                    Comparator.comparing(Slot::getDay).thenComparing(Slot::getStartTime));
+            for (Gene g : genes)
+                distinct.add(g.getSlot());
+            if (distinct.size() > MAX_SLOTS) {
+                throw new IllegalStateException("At most " + MAX_SLOTS + " distinct slots are supported");
+            }
+            Map<Slot, Integer> ordinals = new HashMap<>();
+            for (Slot s : distinct)
+                ordinals.put(s, ordinals.size());
+            return ordinals;
         }
-        // Return variance as penalty (minimize variance)
-        return (int) variance;
     }
 
-    // --- EXISTING CONSTRAINTS RE-MAPPED ---
+    // --- HEURISTICS ---
+    // The per-day terms are static so LocalSearch can re-evaluate a single day with the
+    // exact same rules after a move.
 
-    private int checkFacultyDoubleBooking(List<Gene> genes) {
-        int violations = 0;
-        Map<Faculty, Set<Slot>> facultySchedule = new HashMap<>();
-        for (Gene gene : genes) {
-            for (Faculty f : gene.getFaculty()) {
-                facultySchedule.putIfAbsent(f, new HashSet<>());
-                if (facultySchedule.get(f).contains(gene.getSlot())) {
-                    violations++;
-                } else {
-                    facultySchedule.get(f).add(gene.getSlot());
-                }
+    private int checkFacultyClumping(Indexed ix) {
+        int penalty = 0;
+        for (long mask : ix.facultyMask) {
+            if (mask == 0)
+                continue;
+            for (long dayMask : ix.dayMask)
+                penalty += clumpingOnDay(mask & dayMask, ix.startMin, ix.endMin);
+        }
+        return penalty;
+    }
+
+    /**
+     * "Penalize any schedule where a faculty member has a 3-hour gap between two 1-hour
+     * classes." {@code m} holds one faculty member's slots on one day.
+     */
+    static int clumpingOnDay(long m, int[] startMin, int[] endMin) {
+        if (Long.bitCount(m) < 2)
+            return 0;
+        int penalty = 0;
+        int prev = Long.numberOfTrailingZeros(m);
+        m &= m - 1;
+        while (m != 0) {
+            int next = Long.numberOfTrailingZeros(m);
+            // 3 hours gap approx 180 mins.
+            // Or "Last class ended 10:00, Next starts 13:00" -> 3 hours.
+            if (startMin[next] - endMin[prev] >= 160) {
+                penalty += 1;
             }
+            prev = next;
+            m &= m - 1;
         }
-        return violations;
+        return penalty;
     }
 
-    private int checkSectionDoubleBooking(List<Gene> genes) {
-        int violations = 0;
-        Map<String, Set<Slot>> sectionSchedule = new HashMap<>();
-        for (Gene gene : genes) {
-            String sid = gene.getSection().getId();
-            sectionSchedule.putIfAbsent(sid, new HashSet<>());
-            if (sectionSchedule.get(sid).contains(gene.getSlot())) {
-                violations++;
+    private int checkStudentFatigue(Indexed ix) {
+        int penalty = 0;
+        for (long mask : ix.sectionMask) {
+            if (mask == 0)
+                continue;
+            for (long dayMask : ix.dayMask)
+                penalty += fatigueOnDay(mask & dayMask, ix.startMin, ix.endMin);
+        }
+        return penalty;
+    }
+
+    /**
+     * "More than 3 consecutive hours for a student section." {@code m} holds one section's
+     * slots on one day.
+     */
+    static int fatigueOnDay(long m, int[] startMin, int[] endMin) {
+        if (m == 0)
+            return 0;
+        int penalty = 0;
+        int consecutive = 1;
+        int prev = Long.numberOfTrailingZeros(m);
+        m &= m - 1;
+        while (m != 0) {
+            int next = Long.numberOfTrailingZeros(m);
+            // A break resets fatigue, so consecutive means End(i) == Start(i+1)
+            if (endMin[prev] == startMin[next]) {
+                consecutive++;
             } else {
-                sectionSchedule.get(sid).add(gene.getSlot());
+                // Gap/Break found
+                if (consecutive > 3)
+                    penalty += (consecutive - 3);
+                consecutive = 1;
             }
+            prev = next;
+            m &= m - 1;
         }
-        return violations;
+        if (consecutive > 3)
+            penalty += (consecutive - 3);
+        return penalty;
     }
 
-    private int checkFacultyWorkload(List<Gene> genes) {
-        int violations = 0;
-        Map<Faculty, Double> facultyCredits = new HashMap<>();
-        for (Gene gene : genes) {
-            double creditValue = gene.getSubject().isLab() ? 0.5 : 1.0;
-            for (Faculty f : gene.getFaculty()) {
-                facultyCredits.put(f, facultyCredits.getOrDefault(f, 0.0) + creditValue);
+    private int checkMorningBalance(Indexed ix) {
+        return morningVariance(ix.morningCount);
+    }
+
+    /**
+     * "Assign a higher fitness score to schedules where the 8 AM slots are distributed
+     * standard-deviation-wise across the faculty list." We want LOW StdDev.
+     */
+    static int morningVariance(int[] morningCount) {
+        int faculty = 0;
+        int total = 0;
+        for (int count : morningCount) {
+            if (count > 0) {
+                faculty++;
+                total += count;
             }
         }
-        for (Map.Entry<Faculty, Double> entry : facultyCredits.entrySet()) {
-            if (entry.getValue() > entry.getKey().getMaxTeachingCredits()) {
-                violations++;
-            }
+        if (faculty == 0)
+            return 0;
+        double avg = (double) total / faculty;
+        double variance = 0;
+        for (int count : morningCount) {
+            if (count > 0)
+                variance += Math.pow(count - avg, 2);
         }
-        return violations;
+        // Return variance as penalty (minimize variance)
+        return (int) variance;
     }
 
-    private int checkLabConsecutiveness(List<Gene> genes) {
-        int violations = 0;
-        Map<String, List<Gene>> labGenes = genes.stream()
-                .filter(g -> g.getSubject().isLab())
-                .collect(Collectors.groupingBy(g -> g.getSection().getId() + "_" + g.getSubject().getCode()));
+    // --- EXISTING CONSTRAINTS RE-MAPPED ---
 
-        for (List<Gene> session : labGenes.values()) {
-            if (session.size() < 2)
-                continue;
-            DayOfWeek day = session.get(0).getSlot().getDay();
-            boolean sameDay = session.stream().allMatch(g -> g.getSlot().getDay().equals(day));
-            if (!sameDay) {
+    private int checkFacultyWorkload(Indexed ix) {
+        int violations = 0;
+        for (int f = 0; f < ix.facultyCredits.length; f++) {
+            Faculty faculty = ix.facultyById[f];
+            if (faculty != null && ix.facultyCredits[f] > faculty.getMaxTeachingCredits()) {
                 violations++;
-                continue;
-            }
-            List<Slot> slots = session.stream().map(Gene::getSlot).sorted(Comparator.comparing(Slot::getStartTime))
-                    .collect(Collectors.toList());
-            for (int i = 0; i < slots.size() - 1; i++) {
-                if (!slots.get(i).getEndTime().equals(slots.get(i + 1).getStartTime())) {
-                    violations++;
-                }
             }
         }
         return violations;
     }
 
-    private int checkSectionGaps(List<Gene> genes) {
+    private int checkSectionGaps(Indexed ix) {
         // Reuse optimized strict student friendly logic but return as soft violation
         // count
         int violations = 0;
-        Map<String, Map<DayOfWeek, List<Slot>>> map = new HashMap<>();
-        for (Gene g : genes) {
-            map.putIfAbsent(g.getSection().getId(), new HashMap<>());
-            map.get(g.getSection().getId()).putIfAbsent(g.getSlot().getDay(), new ArrayList<>());
-            map.get(g.getSection().getId()).get(g.getSlot().getDay()).add(g.getSlot());
-        }
-
-        for (Map<DayOfWeek, List<Slot>> days : map.values()) {
-            for (List<Slot> slots : days.values()) {
-                slots.sort(Comparator.comparing(Slot::getStartTime));
-                if (slots.isEmpty())
-                    continue;
-                Slot first = slots.get(0);
-                Slot last = slots.get(slots.size() - 1);
-                long totalTime = java.time.Duration.between(first.getStartTime(), last.getEndTime()).toMinutes();
-
-                // Breaks
-                boolean hasMorningBreak = first.getStartTime().isBefore(LocalTime.of(9, 50))
-                        && last.getEndTime().isAfter(LocalTime.of(10, 20));
-                boolean hasLunchBreak = first.getStartTime().isBefore(LocalTime.of(13, 5))
-                        && last.getEndTime().isAfter(LocalTime.of(14, 0));
-                long breaks = (hasMorningBreak ? 30 : 0) + (hasLunchBreak ? 55 : 0);
-
-                long classTime = slots.size() * 55;
-                long freeTime = totalTime - classTime - breaks;
-
-                if (freeTime > 10) {
-                    violations += (freeTime / 55) + 1;
-                }
+        for (int sec = 0; sec < ix.sectionMask.length; sec++) {
+            long mask = ix.sectionMask[sec];
+            if (mask == 0)
+                continue;
+            for (int day = 0; day < DAYS; day++) {
+                violations += gapsOnDay(mask & ix.dayMask[day], ix.sectionDayCount[sec * DAYS + day],
+                        ix.startMin, ix.endMin);
             }
         }
         return violations;
     }
 
-    private int checkSubjectDistribution(List<Gene> genes) {
+    /**
+     * Idle time in one section's day beyond the fixed breaks, in started 55-minute units.
+     * {@code classCount} counts classes, including any that share a slot.
+     */
+    static int gapsOnDay(long m, int classCount, int[] startMin, int[] endMin) {
+        if (m == 0)
+            return 0;
+        int first = Long.numberOfTrailingZeros(m);
+        int last = 63 - Long.numberOfLeadingZeros(m);
+        long totalTime = endMin[last] - startMin[first];
+
+        // Breaks (09:50-10:20 and 13:05-14:00)
+        boolean hasMorningBreak = startMin[first] < 590 && endMin[last] > 620;
+        boolean hasLunchBreak = startMin[first] < 785 && endMin[last] > 840;
+        long breaks = (hasMorningBreak ? 30 : 0) + (hasLunchBreak ? 55 : 0);
+
+        long classTime = classCount * 55L;
+        long freeTime = totalTime - classTime - breaks;
+
+        if (freeTime > 10) {
+            return (int) ((freeTime / 55) + 1);
+        }
+        return 0;
+    }
+
+    private int checkSubjectDistribution(Indexed ix) {
+        return subjectDistribution(ix.faculty, ix.subject, ix.subjectCredits);
+    }
+
+    /**
+     * Faculty teaching more than two high-credit or more than one one-credit subject.
+     * Slot-independent, so {@link LowerBound} can count it on the template.
+     */
+    static int subjectDistribution(int[][] faculty, int[] subject, int[] subjectCredits) {
+        // Distinct (faculty, subject) pairs via a sorted key array
+        int count = 0;
+        for (int[] team : faculty)
+            count += team.length;
+        long[] pairs = new long[count];
+        count = 0;
+        for (int i = 0; i < subject.length; i++) {
+            for (int f : faculty[i])
+                pairs[count++] = ((long) f << 32) | subject[i];
+        }
+        Arrays.sort(pairs);
+
         int violations = 0;
-        Map<Faculty, Set<Subject>> facultySubjects = new HashMap<>();
-        for (Gene gene : genes) {
-            for (Faculty f : gene.getFaculty()) {
-                facultySubjects.putIfAbsent(f, new HashSet<>());
-                facultySubjects.get(f).add(gene.getSubject());
+        int k = 0;
+        while (k < count) {
+            long f = pairs[k] >>> 32;
+            int high = 0;
+            int low = 0;
+            long previous = -1;
+            for (; k < count && (pairs[k] >>> 32) == f; k++) {
+                if (pairs[k] == previous)
+                    continue;
+                previous = pairs[k];
+                int credits = subjectCredits[(int) pairs[k]];
+                if (credits >= 3)
+                    high++;
+                if (credits == 1)
+                    low++;
             }
-        }
-        for (Set<Subject> subjects : facultySubjects.values()) {
-            long high = subjects.stream().filter(s -> s.getCredits() >= 3).count();
-            long low = subjects.stream().filter(s -> s.getCredits() == 1).count();
             if (high > 2)
                 violations++;
             if (low > 1)
@@ -0,0 +1,194 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.EntityRegistry;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Gene;
+import com.scheduler.model.Slot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One decision variable of the search.
+ *
+ * A theory hour is a group of one gene. A lab session is a block: all its genes move
+ * together and occupy consecutive slots of one day. The group's domain is the set of
+ * positions in the slot list where it may start: the block fits in consecutive slots and
+ * every member of the teaching team is available for all of them. Operators only draw
+ * starts from the domain, so every placement through {@link #place} is a contiguous lab
+ * that no faculty unavailability rules out.
+ */
+class GeneGroup {
+    private final int[] genes; // Template indices
+    private final long domain; // Bit p set = may start at position p of the slot list
+    private final int[] starts; // The same domain as a list, for uniform sampling
+
+    GeneGroup(int[] genes, long domain) {
+        this.genes = genes;
+        this.domain = domain;
+        this.starts = new int[Long.bitCount(domain)];
+        long m = domain;
+        for (int k = 0; m != 0; k++) {
+            starts[k] = Long.numberOfTrailingZeros(m);
+            m &= m - 1;
+        }
+    }
+
+    int size() {
+        return genes.length;
+    }
+
+    int gene(int k) {
+        return genes[k];
+    }
+
+    int[] getGenes() {
+        return genes;
+    }
+
+    boolean isBlock() {
+        return genes.length > 1;
+    }
+
+    int[] getStarts() {
+        return starts;
+    }
+
+    long getDomain() {
+        return domain;
+    }
+
+    boolean allows(int start) {
+        return start >= 0 && start < Long.SIZE && (domain & (1L << start)) != 0;
+    }
+
+    int randomStart(Random rand) {
+        return starts[rand.nextInt(starts.length)];
+    }
+
+    /** Whether every gene of the group already carries a slot from {@code slots}. */
+    boolean hasSlotsIn(List<Gene> chromosomeGenes, List<Slot> slots) {
+        for (int index : genes) {
+            Slot slot = chromosomeGenes.get(index).getSlot();
+            if (slot == null || !slots.contains(slot))
+                return false;
+        }
+        return true;
+    }
+
+    void place(List<Gene> chromosomeGenes, List<Slot> slots, int start) {
+        for (int k = 0; k < genes.length; k++) {
+            chromosomeGenes.get(genes[k]).setSlot(slots.get(start + k));
+        }
+    }
+
+    /**
+     * Splits a gene template into groups: consecutive lab genes of the same section and
+     * subject form one block, every other gene is a group on its own. Domains are shared
+     * between groups with the same size and teaching team.
+     */
+    static List<GeneGroup> build(List<Gene> template, List<Slot> slots) {
+        if (slots.size() > EntityRegistry.MAX_SLOTS) {
+            throw new IllegalStateException("At most " + EntityRegistry.MAX_SLOTS + " slots are supported");
+        }
+        List<GeneGroup> groups = new ArrayList<>();
+        List<Long> blockMasks = new ArrayList<>(); // Consecutive-start mask per block size
+        Map<Faculty, Long> availability = new HashMap<>();
+        Map<String, Long> domains = new HashMap<>();
+        int n = template.size();
+        int i = 0;
+        while (i < n) {
+            Gene current = template.get(i);
+            int end = i + 1;
+            if (current.getSubject().isLab()) {
+                while (end < n && template.get(end).getSection().equals(current.getSection())
+                        && template.get(end).getSubject().equals(current.getSubject())) {
+                    end++;
+                }
+            }
+            int size = end - i;
+            while (blockMasks.size() <= size)
+                blockMasks.add(null);
+            if (blockMasks.get(size) == null)
+                blockMasks.set(size, validStarts(slots, size));
+
+            StringBuilder key = new StringBuilder().append(size);
+            long available = -1L;
+            for (Faculty f : current.getFaculty()) {
+                key.append(',').append(f.getOrdinal());
+                available &= availability.computeIfAbsent(f, x -> availableMask(x, slots));
+            }
+            long blockMask = blockMasks.get(size);
+            long teamMask = available;
+            long domain = domains.computeIfAbsent(key.toString(), k -> startsWithin(blockMask, teamMask, size));
+            if (domain == 0) {
+                throw new IllegalStateException("No " + size + " consecutive slots available for "
+                        + current.getSubject().getName() + " (" + current.getSection().getName() + ")"
+                        + (blockMask == 0 ? "" : " when " + current.getFaculty() + " can teach"));
+            }
+
+            int[] members = new int[size];
+            for (int k = 0; k < size; k++)
+                members[k] = i + k;
+            groups.add(new GeneGroup(members, domain));
+            i = end;
+        }
+        return groups;
+    }
+
+    /**
+     * The groups a search may move: all of them, or those with at least one gene not
+     * flagged in {@code pinned}.
+     */
+    static List<GeneGroup> movable(List<GeneGroup> groups, boolean[] pinned) {
+        List<GeneGroup> movable = new ArrayList<>();
+        for (GeneGroup group : groups) {
+            if (pinned == null || Arrays.stream(group.genes).anyMatch(index -> !pinned[index]))
+                movable.add(group);
+        }
+        return movable;
+    }
+
+    /** Starts whose next {@code size} positions are all set in {@code available}. */
+    private static long startsWithin(long blockMask, long available, int size) {
+        long covered = available;
+        for (int k = 1; k < size; k++)
+            covered &= available >>> k;
+        return blockMask & covered;
+    }
+
+    static long availableMask(Faculty faculty, List<Slot> slots) {
+        long mask = 0;
+        for (int p = 0; p < slots.size(); p++) {
+            if (faculty.isAvailable(slots.get(p)))
+                mask |= 1L << p;
+        }
+        return mask;
+    }
+
+    static long validStarts(List<Slot> slots, int size) {
+        long valid = 0;
+        for (int start = 0; start + size <= slots.size(); start++) {
+            if (isValidBlock(slots, start, size))
+                valid |= 1L << start;
+        }
+        return valid;
+    }
+    static boolean isValidBlock(List<Slot> slots, int start, int size) {
+        Slot first = slots.get(start);
+        for (int k = 1; k < size; k++) {
+            Slot prev = slots.get(start + k - 1);
+            Slot curr = slots.get(start + k);
+            if (curr.getDay() != first.getDay())
+                return false;
+            // Strict Adjacency
+            if (!prev.getEndTime().equals(curr.getStartTime()))
+                return false;
+        }
+        return true;
+    }
+}
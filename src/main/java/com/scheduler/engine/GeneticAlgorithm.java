@@ -3,23 +3,46 @@ package com.scheduler.engine;
 
 import com.scheduler.model.Chromosome;
 import com.scheduler.model.Gene;
+import com.scheduler.model.Score;
 import com.scheduler.model.Slot;
 import java.time.DayOfWeek;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
-public class GeneticAlgorithm {
+public class GeneticAlgorithm implements Solver {
 
     private int populationSize = 50;
     private double mutationRate = 0.5; // Higher mutation for steady state
     private int tournamentSize = 5;
     private int maxGenerationsWithoutImprovement = 50;
-    private double targetFitness = 1.0;
+    private long targetScore; // Packed lower bound (see LowerBound); stop once the best reaches it
+    private double warmStartFraction = 0.2; // Share of the population seeded from a prior timetable
+    private int memeticInterval = 0; // Generations between local-search rounds; 0 = off
+    private double eliteFraction = 0.1; // Share of the population that gets local search
+    private int localSearchBudget = 500; // Moves per elite per round
+    private int memeticThreads = Runtime.getRuntime().availableProcessors();
+    private long timeLimitMillis = 0; // 0 = no limit
+    private Random rand = new Random();
+    private static final int FITNESS_CACHE_SIZE = 4096;
+    private static final long REPORT_INTERVAL_NANOS = 50_000_000; // Progress at most every 50 ms
+    private static final Comparator<Chromosome> BEST_FIRST = Comparator.comparingLong(Chromosome::getPackedScore);
 
     private List<Slot> availableSlots;
     private FitnessFunction fitnessFunction;
     private ConstraintSatisfaction constraintSatisfaction;
-    private List<List<Integer>> geneGroups; // Groups of indices for lab blocks
+    private List<GeneGroup> geneGroups; // Decision variables: single hours and lab blocks
+    private List<GeneGroup> movableGroups; // Groups the operators are allowed to move
+    private CanonicalOrder canonicalOrder;
+    private Map<Slot, Integer> slotIndex;
+    private Map<String, Score> fitnessCache;
+    private Map<String, Integer> populationKeys; // Canonical key -> members of the current population
+    private Chromosome warmStart;
+    private SolverProgress.Listener progressListener;
+    private long evaluations; // Full fitness evaluations in the current run
 
     public GeneticAlgorithm(List<Slot> availableSlots) {
         this.availableSlots = availableSlots;
@@ -27,73 +50,302 @@ public class GeneticAlgorithm {
         this.constraintSatisfaction = new ConstraintSatisfaction(availableSlots);
     }
 
-    public Chromosome evolve(List<Gene> initialGenesTemplate) {
-        buildGeneGroups(initialGenesTemplate);
-        List<Chromosome> population = initializePopulation(initialGenesTemplate);
+    /**
+     * Seeds part of the initial population from a previous timetable instead of starting
+     * purely at random. The prior timetable does not need to match the template; see
+     * {@link WarmStartMapper}.
+     */
+    @Override
+    public void setWarmStart(Chromosome prior) {
+        this.warmStart = prior;
+    }
 
-        // Evaluate initial fitness
-        for (Chromosome c : population) {
-            c.setFitness(fitnessFunction.calculateFitness(c));
-        }
+    /**
+     * Enables the memetic mode: every {@code everyGenerations} generations the best
+     * {@code eliteFraction} of the population gets up to {@code movesPerElite} moves of
+     * soft-constraint local search (see {@link LocalSearch}), run in parallel across the
+     * elites. Improved elites replace the originals in place. Pass 0 generations to turn
+     * it off again.
+     */
+    public void setMemetic(int everyGenerations, double eliteFraction, int movesPerElite) {
+        this.memeticInterval = Math.max(0, everyGenerations);
+        this.eliteFraction = eliteFraction;
+        this.localSearchBudget = movesPerElite;
+    }
+
+    public void setMemeticThreads(int threads) {
+        this.memeticThreads = Math.max(1, threads);
+    }
+
+    @Override
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = Math.max(0, millis);
+    }
+
+    /** Reports generation, population best and worst and evaluation rate while evolving. */
+    public void setProgressListener(SolverProgress.Listener listener) {
+        this.progressListener = listener;
+    }
+
+    /** Seeds every random choice, including repair and the memetic local search. */
+    @Override
+    public void setSeed(long seed) {
+        this.rand = new Random(seed);
+        constraintSatisfaction.setRandom(rand);
+    }
+
+    @Override
+    public Chromosome solve(List<Gene> template, boolean[] pinned) {
+        return evolve(template, pinned);
+    }
+
+    public Chromosome evolve(List<Gene> initialGenesTemplate) {
+        return evolve(initialGenesTemplate, null);
+    }
 
-        Collections.sort(population, (c1, c2) -> Double.compare(c2.getFitness(), c1.getFitness()));
+    /**
+     * Evolves a timetable in which genes flagged in {@code pinned} keep the slot they carry
+     * in the template. A lab block stays movable as long as one of its genes is unpinned.
+     * Movable genes that already have a slot are kept as-is in the first individual so a
+     * re-solve starts from the existing timetable instead of from scratch.
+     */
+    public Chromosome evolve(List<Gene> initialGenesTemplate, boolean[] pinned) {
+        long startNanos = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? startNanos + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        List<Chromosome> population = startRun(initialGenesTemplate, pinned);
+        if (movableGroups.isEmpty())
+            return population.get(0);
 
         int generations = 0;
         int stableGenerations = 0;
-        double bestInternalFitness = population.get(0).getFitness();
+        long lastReport = startNanos;
+        long lastEvaluations = 0;
+        long bestInternalScore = population.get(0).getPackedScore();
+        ExecutorService memeticPool = memeticInterval > 0
+                ? Executors.newFixedThreadPool(Math.min(memeticThreads, eliteCount()))
+                : null;
+
+        try {
+            // Steady-State Loop
+            while (population.get(0).getPackedScore() > targetScore && stableGenerations < maxGenerationsWithoutImprovement
+                    && System.nanoTime() < deadline) {
+                generations++;
+
+                // Selection
+                Chromosome p1 = tournamentSelection(population);
+                Chromosome p2 = tournamentSelection(population);
+
+                // Crossover
+                Chromosome child = uniformCrossover(p1, p2);
+
+                // Mutation
+                mutate(child);
+
+                // Constraint Satisfaction (Repair)
+                child = constraintSatisfaction.optimize(child);
+
+                // Elitism / Replacement: Replace worst if child is better
+                // Find worst index
+                int worstIndex = populationSize - 1; // Since sorted
+
+                // A child equal to a member up to permutation of same-course hours is a duplicate,
+                // and one that cannot beat the worst member is rejected without a full evaluation
+                String key = canonicalKey(child);
+                if (!populationKeys.containsKey(key)
+                        && evaluateAgainst(child, key, population.get(worstIndex).getPackedScore())) {
+                    populationKeys.computeIfPresent(canonicalKey(population.get(worstIndex)), (k, n) -> n > 1 ? n - 1 : null);
+                    populationKeys.put(key, 1);
+                    population.set(worstIndex, child);
+                    // Re-sort to maintain order for easy elitism/worst finding
+                    population.sort(BEST_FIRST);
+                }
 
-        // Steady-State Loop
-        while (population.get(0).getFitness() < targetFitness && stableGenerations < maxGenerationsWithoutImprovement) {
-            generations++;
+                // Memetic step: intensify around the best individuals
+                if (memeticPool != null && generations % memeticInterval == 0) {
+                    improveElites(population, memeticPool);
+                }
 
-            // Selection
-            Chromosome p1 = tournamentSelection(population);
-            Chromosome p2 = tournamentSelection(population);
+                // Check convergence
+                if (population.get(0).getPackedScore() < bestInternalScore) {
+                    bestInternalScore = population.get(0).getPackedScore();
+                    stableGenerations = 0;
+                } else {
+                    stableGenerations++;
+                }
 
-            // Crossover
-            Chromosome child = uniformCrossover(p1, p2);
+                long now = System.nanoTime();
+                if (progressListener != null && now - lastReport >= REPORT_INTERVAL_NANOS) {
+                    report(population, generations, lastEvaluations, now - lastReport, now - startNanos, false);
+                    lastReport = now;
+                    lastEvaluations = evaluations;
+                }
 
-            // Mutation
-            mutate(child);
+                // Safety break
+                if (generations > 5000)
+                    break;
+            }
+        } finally {
+            if (memeticPool != null)
+                memeticPool.shutdownNow();
+        }
 
-            // Constraint Satisfaction (Repair)
-            child = constraintSatisfaction.optimize(child);
+        if (progressListener != null) {
+            long now = System.nanoTime();
+            report(population, generations, lastEvaluations, now - lastReport, now - startNanos, true);
+        }
+        return population.get(0);
+    }
 
-            // Evaluate
-            child.setFitness(fitnessFunction.calculateFitness(child));
+    /**
+     * Sets up the state of a run over {@code template} and returns its initial population,
+     * scored and best first.
+     */
+    List<Chromosome> startRun(List<Gene> template, boolean[] pinned) {
+        evaluations = 0;
+        geneGroups = GeneGroup.build(template, availableSlots);
+        buildMovableGroups(pinned);
+        canonicalOrder = CanonicalOrder.build(template, geneGroups, movableGroups);
+        targetScore = LowerBound.of(template, availableSlots).pack();
+        constraintSatisfaction.setCanonicalOrder(canonicalOrder);
+        slotIndex = new HashMap<>();
+        for (int i = 0; i < availableSlots.size(); i++)
+            slotIndex.put(availableSlots.get(i), i);
+        fitnessCache = new LinkedHashMap<String, Score>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Score> eldest) {
+                return size() > FITNESS_CACHE_SIZE;
+            }
+        };
+        List<Chromosome> population = initializePopulation(template, pinned != null);
 
-            // Elitism / Replacement: Replace worst if child is better
-            // Find worst index
-            int worstIndex = populationSize - 1; // Since sorted
+        if (movableGroups.isEmpty()) {
+            Chromosome frozen = population.get(0); // Nothing to search: only this one is returned
+            frozen.setScore(fitnessFunction.calculateScore(frozen));
+            return population;
+        }
 
-            if (child.getFitness() > population.get(worstIndex).getFitness()) {
-                population.set(worstIndex, child);
-                // Re-sort to maintain order for easy elitism/worst finding
-                Collections.sort(population, (c1, c2) -> Double.compare(c2.getFitness(), c1.getFitness()));
-            }
+        // Evaluate initial fitness
+        populationKeys = new HashMap<>();
+        for (Chromosome c : population) {
+            String key = canonicalKey(c);
+            populationKeys.merge(key, 1, Integer::sum);
+            evaluate(c, key);
+        }
+
+        population.sort(BEST_FIRST);
+        return population;
+    }
+
+    private void report(List<Chromosome> population, int generations, long evaluationsBefore, long intervalNanos,
+            long elapsedNanos, boolean finished) {
+        double perSecond = intervalNanos > 0 ? (evaluations - evaluationsBefore) * 1e9 / intervalNanos : 0;
+        progressListener.progress(new SolverProgress(generations, population.get(0).getScore(),
+                population.get(population.size() - 1).getScore(), evaluations, perSecond, elapsedNanos / 1_000_000,
+                finished));
+    }
 
-            // Check convergence
-            if (population.get(0).getFitness() > bestInternalFitness) {
-                bestInternalFitness = population.get(0).getFitness();
-                stableGenerations = 0;
-            } else {
-                stableGenerations++;
+    private int eliteCount() {
+        return Math.max(1, (int) Math.ceil(populationSize * eliteFraction));
+    }
+
+    /**
+     * Runs local search on the top of the (sorted) population in parallel and writes each
+     * improved elite back over its original, unless it would duplicate another member. The
+     * population is the one of the current run (see {@link #startRun}).
+     */
+    void improveElites(List<Chromosome> population, ExecutorService pool) {
+        int elites = Math.min(eliteCount(), population.size());
+        List<Future<Chromosome>> futures = new ArrayList<>(elites);
+        for (int i = 0; i < elites; i++) {
+            Chromosome elite = population.get(i);
+            Random eliteRand = new Random(rand.nextLong()); // Drawn here, so runs stay reproducible
+            // LocalSearch keeps per-run state, so each task gets its own
+            futures.add(pool.submit(
+                    () -> new LocalSearch(availableSlots, movableGroups).improve(elite, localSearchBudget, eliteRand)));
+        }
+
+        boolean changed = false;
+        try {
+            for (int i = 0; i < elites; i++) {
+                Chromosome improved = futures.get(i).get();
+                if (improved == null)
+                    continue;
+                canonicalOrder.apply(improved.getGenes());
+                String key = canonicalKey(improved);
+                if (populationKeys.containsKey(key))
+                    continue;
+                evaluate(improved, key); // Exact score; the search only tracked deltas
+                Chromosome original = population.get(i);
+                if (improved.getPackedScore() >= original.getPackedScore())
+                    continue;
+                populationKeys.computeIfPresent(canonicalKey(original), (k, n) -> n > 1 ? n - 1 : null);
+                populationKeys.put(key, 1);
+                population.set(i, improved);
+                changed = true;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Local search was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Local search failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        if (changed)
+            population.sort(BEST_FIRST);
+    }
 
-            // Safety break
-            if (generations > 5000)
-                break;
+    /**
+     * Looks the score up by canonical assignment first. Chromosomes are kept in canonical
+     * form by every operator, so revisiting a timetable through a different permutation of
+     * its theory hours still hits the cache.
+     */
+    private void evaluate(Chromosome c, String key) {
+        Score cached = fitnessCache.get(key);
+        if (cached == null) {
+            cached = fitnessFunction.calculateScore(c);
+            evaluations++;
+            fitnessCache.put(key, cached);
         }
+        c.setScore(cached);
+    }
 
-        return population.get(0);
+    /**
+     * Scores the child if it beats {@code cutoff}. Rejected children are not cached: their
+     * evaluation stopped early, so only a bound on their score is known.
+     */
+    private boolean evaluateAgainst(Chromosome c, String key, long cutoff) {
+        Score cached = fitnessCache.get(key);
+        if (cached == null) {
+            cached = fitnessFunction.calculateScore(c, cutoff);
+            evaluations++;
+            if (cached == null)
+                return false;
+            fitnessCache.put(key, cached);
+        }
+        c.setScore(cached);
+        return cached.pack() < cutoff;
+    }
+
+    /**
+     * Slot positions of the movable genes, one char each. Frozen genes are identical across
+     * the population and are left out.
+     */
+    private String canonicalKey(Chromosome c) {
+        List<Gene> genes = c.getGenes();
+        StringBuilder key = new StringBuilder(genes.size());
+        for (GeneGroup group : movableGroups) {
+            for (int index : group.getGenes()) {
+                Integer position = slotIndex.get(genes.get(index).getSlot());
+                key.append((char) (position == null ? 0 : position + 1));
+            }
+        }
+        return key.toString();
     }
 
     private Chromosome tournamentSelection(List<Chromosome> population) {
         Chromosome best = null;
-        Random rand = new Random();
         for (int i = 0; i < tournamentSize; i++) {
             Chromosome random = population.get(rand.nextInt(population.size()));
-            if (best == null || random.getFitness() > best.getFitness()) {
+            if (best == null || random.getPackedScore() < best.getPackedScore()) {
                 best = random;
             }
         }
@@ -104,144 +356,112 @@ public class GeneticAlgorithm {
         List<Gene> genes1 = p1.getGenes();
         List<Gene> genes2 = p2.getGenes();
         List<Gene> childGenes = new ArrayList<>(Collections.nCopies(genes1.size(), null));
-        Random rand = new Random();
 
         // Uniform Crossover at Group Level (to preserve Lab blocks)
-        for (List<Integer> group : geneGroups) {
+        for (GeneGroup group : geneGroups) {
             boolean fromP1 = rand.nextBoolean();
-            for (int index : group) {
+            for (int index : group.getGenes()) {
                 Gene source = fromP1 ? genes1.get(index) : genes2.get(index);
                 childGenes.set(index, new Gene(source.getSlot(), source.getSection(), source.getSubject(),
                         new ArrayList<>(source.getFaculty())));
             }
         }
+        // Same-course hours are sorted, so mixing them by position could put two of them in
+        // one slot; recombine them as slot sets instead
+        canonicalOrder.crossover(genes1, genes2, childGenes, rand);
+        canonicalOrder.apply(childGenes);
         return new Chromosome(childGenes);
     }
 
     private void mutate(Chromosome c) {
-        Random rand = new Random();
+        List<Gene> genes = c.getGenes();
 
         // Swap Mutation: Swap two groups within same section
         if (rand.nextDouble() < mutationRate) {
             // Pick random group
-            List<Integer> group1 = geneGroups.get(rand.nextInt(geneGroups.size()));
-            Gene g1 = c.getGenes().get(group1.get(0));
-
-            // Find another group in same section
-            List<List<Integer>> sameSectionGroups = geneGroups.stream()
-                    .filter(g -> c.getGenes().get(g.get(0)).getSection().getId().equals(g1.getSection().getId()))
+            GeneGroup group1 = movableGroups.get(rand.nextInt(movableGroups.size()));
+            Gene g1 = genes.get(group1.gene(0));
+            int start1 = positionOf(genes, group1);
+
+            // Find another group of the same shape in same section whose start is legal for
+            // group1 and vice versa, so both stay valid blocks inside their domains
+            List<GeneGroup> sameSectionGroups = movableGroups.stream()
+                    .filter(g -> g.size() == group1.size())
+                    .filter(g -> genes.get(g.gene(0)).getSection().getOrdinal() == g1.getSection().getOrdinal())
+                    .filter(g -> g.allows(start1) && group1.allows(positionOf(genes, g)))
                     .collect(Collectors.toList());
 
             if (sameSectionGroups.size() > 1) {
-                List<Integer> group2 = sameSectionGroups.get(rand.nextInt(sameSectionGroups.size()));
-
-                // Swap slots logic: Need to ensure structure validity if sizes differ?
-                // Simple swap if sizes same, else re-assign random
-                if (group1.size() == group2.size()) {
-                    for (int i = 0; i < group1.size(); i++) {
-                        Slot s1 = c.getGenes().get(group1.get(i)).getSlot();
-                        Slot s2 = c.getGenes().get(group2.get(i)).getSlot();
-                        c.getGenes().get(group1.get(i)).setSlot(s2);
-                        c.getGenes().get(group2.get(i)).setSlot(s1);
-                    }
+                GeneGroup group2 = sameSectionGroups.get(rand.nextInt(sameSectionGroups.size()));
+                for (int i = 0; i < group1.size(); i++) {
+                    Slot s1 = genes.get(group1.gene(i)).getSlot();
+                    Slot s2 = genes.get(group2.gene(i)).getSlot();
+                    genes.get(group1.gene(i)).setSlot(s2);
+                    genes.get(group2.gene(i)).setSlot(s1);
                 }
             }
         }
 
-        // Guided / Random Re-roll Mutation
+        // Guided / Random Re-roll Mutation: move a whole group to another start in its domain
         if (rand.nextDouble() < mutationRate) {
-            List<Integer> group = geneGroups.get(rand.nextInt(geneGroups.size()));
-            boolean isLab = c.getGenes().get(group.get(0)).getSubject().isLab();
-            List<Slot> newSlots = pickRandomSlotsForGroup(group.size(), isLab);
-            for (int k = 0; k < group.size(); k++) {
-                c.getGenes().get(group.get(k)).setSlot(newSlots.get(k));
-            }
+            GeneGroup group = movableGroups.get(rand.nextInt(movableGroups.size()));
+            group.place(genes, availableSlots, group.randomStart(rand));
         }
+        canonicalOrder.apply(genes);
+    }
+
+    private int positionOf(List<Gene> genes, GeneGroup group) {
+        Integer position = slotIndex.get(genes.get(group.gene(0)).getSlot());
+        return position == null ? -1 : position;
     }
 
-    private List<Chromosome> initializePopulation(List<Gene> template) {
+    private List<Chromosome> initializePopulation(List<Gene> template, boolean keepTemplateSlots) {
         List<Chromosome> pop = new ArrayList<>();
-        // Seed with a "Smart" greedy individual?
-        // For now, random.
-        for (int i = 0; i < populationSize; i++) {
-            List<Gene> newGenes = new ArrayList<>(Collections.nCopies(template.size(), null));
-            for (List<Integer> group : geneGroups) {
-                Gene templateGene = template.get(group.get(0));
-                List<Slot> assignedSlots = pickRandomSlotsForGroup(group.size(), templateGene.getSubject().isLab());
-                for (int k = 0; k < group.size(); k++) {
-                    int originalIndex = group.get(k);
-                    Gene g = template.get(originalIndex);
-                    newGenes.set(originalIndex, new Gene(assignedSlots.get(k), g.getSection(), g.getSubject(),
-                            new ArrayList<>(g.getFaculty())));
-                }
-            }
-            pop.add(new Chromosome(newGenes));
+        Set<GeneGroup> movable = Collections.newSetFromMap(new IdentityHashMap<>());
+        movable.addAll(movableGroups);
+
+        // Seed the first individuals from the prior timetable, if any; the rest start random
+        List<List<Slot>> priorSlots = null;
+        int seeded = 0;
+        if (warmStart != null) {
+            priorSlots = new WarmStartMapper(availableSlots).map(template, geneGroups, warmStart);
+            seeded = Math.max(1, (int) (populationSize * warmStartFraction));
         }
-        return pop;
-    }
 
-    private void buildGeneGroups(List<Gene> template) {
-        geneGroups = new ArrayList<>();
-        int n = template.size();
-        boolean[] visited = new boolean[n];
-        for (int i = 0; i < n; i++) {
-            if (visited[i])
-                continue;
-            List<Integer> group = new ArrayList<>();
-            group.add(i);
-            visited[i] = true;
-            Gene current = template.get(i);
-            if (current.getSubject().isLab()) {
-                for (int j = i + 1; j < n; j++) {
-                    if (visited[j])
-                        break;
-                    Gene next = template.get(j);
-                    if (next.getSection().equals(current.getSection()) &&
-                            next.getSubject().equals(current.getSubject())) {
-                        group.add(j);
-                        visited[j] = true;
-                    } else {
-                        break;
+        for (int i = 0; i < populationSize; i++) {
+            List<Gene> newGenes = new ArrayList<>(template.size());
+            for (Gene g : template) {
+                newGenes.add(new Gene(g.getSlot(), g.getSection(), g.getSubject(), new ArrayList<>(g.getFaculty())));
+            }
+            for (int gi = 0; gi < geneGroups.size(); gi++) {
+                GeneGroup group = geneGroups.get(gi);
+                if (!movable.contains(group) || (keepTemplateSlots && i == 0 && group.hasSlotsIn(template, availableSlots))) {
+                    continue; // Keep the template slots
+                }
+                if (i < seeded && priorSlots.get(gi) != null) {
+                    List<Slot> assignedSlots = priorSlots.get(gi);
+                    for (int k = 0; k < group.size(); k++) {
+                        newGenes.get(group.gene(k)).setSlot(assignedSlots.get(k));
                     }
+                } else {
+                    group.place(newGenes, availableSlots, group.randomStart(rand));
                 }
             }
-            geneGroups.add(group);
-        }
-    }
-
-    private List<Slot> pickRandomSlotsForGroup(int size, boolean isLab) {
-        Random rand = new Random();
-        if (size == 1)
-            return Collections.singletonList(availableSlots.get(rand.nextInt(availableSlots.size())));
-
-        List<Integer> validStartIndices = new ArrayList<>();
-        for (int i = 0; i <= availableSlots.size() - size; i++) {
-            if (isValidBlock(i, size, isLab)) {
-                validStartIndices.add(i);
+            Chromosome individual = new Chromosome(newGenes);
+            // Perturbed copies of the warm start keep the population diverse
+            if (i > 0 && i < seeded) {
+                for (int m = 0; m <= i % 3; m++) {
+                    mutate(individual);
+                }
             }
+            canonicalOrder.apply(newGenes);
+            pop.add(individual);
         }
-        if (validStartIndices.isEmpty())
-            return Collections.singletonList(availableSlots.get(rand.nextInt(availableSlots.size())));
-
-        int startIndex = validStartIndices.get(rand.nextInt(validStartIndices.size()));
-        List<Slot> result = new ArrayList<>();
-        for (int k = 0; k < size; k++) {
-            result.add(availableSlots.get(startIndex + k));
-        }
-        return result;
+        return pop;
     }
 
-    private boolean isValidBlock(int startIndex, int size, boolean isLab) {
-        Slot first = availableSlots.get(startIndex);
-        for (int k = 1; k < size; k++) {
-            Slot prev = availableSlots.get(startIndex + k - 1);
-            Slot curr = availableSlots.get(startIndex + k);
-            if (curr.getDay() != first.getDay())
-                return false;
-            // Strict Adjacency
-            if (!prev.getEndTime().equals(curr.getStartTime()))
-                return false;
-        }
-        return true;
+    private void buildMovableGroups(boolean[] pinned) {
+        movableGroups = GeneGroup.movable(geneGroups, pinned);
+        constraintSatisfaction.setMovableGroups(movableGroups);
     }
 }
@@ -0,0 +1,163 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Repairs an existing timetable after a {@link ChangeSet} instead of regenerating it.
+ *
+ * Only the genes hit by the change (new sections, classes of a removed professor, classes
+ * sitting in a blocked slot) and their conflict neighbourhood are unpinned. The
+ * neighbourhood is every gene that shares a section or a faculty member with an affected
+ * gene on the same day, since those are the only classes a move can clash with. A gene of
+ * a new section has no day yet and may land on any of them, so every class of its faculty
+ * is unpinned with it. The rest of the timetable is frozen, so the search space and the churn both scale with the size
+ * of the change.
+ */
+public class IncrementalRescheduler {
+
+    private final TimetableGenerator generator;
+
+    public IncrementalRescheduler(TimetableGenerator generator) {
+        this.generator = generator;
+    }
+
+    public Chromosome reschedule(Chromosome current, ChangeSet changes, List<Faculty> facultyList,
+            List<Subject> subjectList) {
+        List<Gene> genes = current.deepClone().getGenes();
+        if (changes.isEmpty()) {
+            Chromosome unchanged = new Chromosome(genes);
+            unchanged.setScore(new FitnessFunction().calculateScore(unchanged));
+            return unchanged;
+        }
+
+        Set<Faculty> removed = new HashSet<>(changes.getRemovedFaculty());
+        List<Faculty> remainingFaculty = facultyList.stream()
+                .filter(f -> !removed.contains(f))
+                .collect(Collectors.toList());
+        Set<Slot> blocked = new HashSet<>(changes.getBlockedSlots());
+
+        Map<Faculty, Double> load = currentLoad(genes, remainingFaculty);
+        boolean[] affected = new boolean[genes.size()];
+
+        // 1. Hand classes of removed faculty over to someone else
+        replaceRemovedFaculty(genes, removed, remainingFaculty, load, affected);
+
+        // 2. Classes sitting in a slot that is no longer available
+        for (int i = 0; i < genes.size(); i++) {
+            if (blocked.contains(genes.get(i).getSlot()))
+                affected[i] = true;
+        }
+
+        // 3. Genes for newly added sections (nothing to keep, so they are all affected)
+        List<Gene> added = generator.createGenes(remainingFaculty, subjectList, changes.getAddedSections(), load);
+        int existing = genes.size();
+        genes.addAll(added);
+        affected = Arrays.copyOf(affected, genes.size());
+        Arrays.fill(affected, existing, genes.size(), true);
+
+        // 4. Unpin affected genes plus everything they can conflict with
+        boolean[] pinned = new boolean[genes.size()];
+        Arrays.fill(pinned, true);
+        for (int i : conflictNeighbourhood(genes, affected))
+            pinned[i] = false;
+
+        List<Slot> openSlots = generator.createSlots().stream()
+                .filter(s -> !blocked.contains(s))
+                .collect(Collectors.toList());
+        return generator.newSolver(openSlots, null).solve(genes, pinned);
+    }
+
+    private Map<Faculty, Double> currentLoad(List<Gene> genes, List<Faculty> facultyList) {
+        Map<Faculty, Double> load = new HashMap<>();
+        for (Faculty f : facultyList)
+            load.put(f, 0.0);
+        for (Gene g : genes) {
+            double creditValue = g.getSubject().isLab() ? 0.5 : 1.0;
+            for (Faculty f : g.getFaculty()) {
+                load.computeIfPresent(f, (k, v) -> v + creditValue);
+            }
+        }
+        return load;
+    }
+
+    private void replaceRemovedFaculty(List<Gene> genes, Set<Faculty> removed, List<Faculty> remainingFaculty,
+            Map<Faculty, Double> load, boolean[] affected) {
+        // One replacement per (section, subject, leaving professor) so a course keeps a single teacher
+        Map<String, Faculty> replacements = new HashMap<>();
+
+        for (int i = 0; i < genes.size(); i++) {
+            Gene g = genes.get(i);
+            if (g.getFaculty().stream().noneMatch(removed::contains))
+                continue;
+
+            List<Faculty> team = new ArrayList<>(g.getFaculty());
+            for (int k = 0; k < team.size(); k++) {
+                Faculty leaving = team.get(k);
+                if (!removed.contains(leaving))
+                    continue;
+
+                String key = g.getSection().getId() + "_" + g.getSubject().getCode() + "_" + leaving.getId();
+                Faculty replacement = replacements.get(key);
+                if (replacement == null) {
+                    replacement = pickReplacement(g, team, remainingFaculty, load);
+                    replacements.put(key, replacement);
+                    // Reserve the whole course load up front
+                    load.put(replacement, load.get(replacement) + g.getSubject().getCredits());
+                }
+                team.set(k, replacement);
+            }
+            g.setFaculty(team);
+            affected[i] = true;
+        }
+    }
+
+    private Faculty pickReplacement(Gene gene, List<Faculty> team, List<Faculty> remainingFaculty,
+            Map<Faculty, Double> load) {
+        Subject subject = gene.getSubject();
+        double cost = subject.getCredits();
+        return remainingFaculty.stream()
+                .filter(f -> f.getPreferredSubjectCodes().contains(subject.getCode()))
+                .filter(f -> !team.contains(f))
+                .filter(f -> load.get(f) + cost <= f.getMaxTeachingCredits())
+                .min(Comparator.comparingDouble(load::get))
+                .orElseThrow(() -> new IllegalStateException("No replacement faculty available for "
+                        + subject.getName() + " (" + gene.getSection().getName() + ")"));
+    }
+
+    Set<Integer> conflictNeighbourhood(List<Gene> genes, boolean[] affected) {
+        Set<Integer> result = new HashSet<>();
+        Set<String> touchedDays = new HashSet<>();
+        Set<Faculty> touchedAllWeek = new HashSet<>(); // Teams of genes not placed yet
+        for (int i = 0; i < genes.size(); i++) {
+            if (!affected[i])
+                continue;
+            result.add(i);
+            Gene g = genes.get(i);
+            if (g.getSlot() == null) {
+                touchedAllWeek.addAll(g.getFaculty());
+                continue;
+            }
+            DayOfWeek day = g.getSlot().getDay();
+            touchedDays.add("S:" + g.getSection().getId() + "_" + day);
+            for (Faculty f : g.getFaculty())
+                touchedDays.add("F:" + f.getId() + "_" + day);
+        }
+
+        for (int i = 0; i < genes.size(); i++) {
+            Gene g = genes.get(i);
+            if (result.contains(i) || g.getSlot() == null)
+                continue;
+            DayOfWeek day = g.getSlot().getDay();
+            boolean touched = touchedDays.contains("S:" + g.getSection().getId() + "_" + day)
+                    || g.getFaculty().stream().anyMatch(f -> touchedAllWeek.contains(f)
+                            || touchedDays.contains("F:" + f.getId() + "_" + day));
+            if (touched)
+                result.add(i);
+        }
+        return result;
+    }
+}
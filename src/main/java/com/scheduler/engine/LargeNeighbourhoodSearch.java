@@ -0,0 +1,330 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Chromosome;
+import com.scheduler.model.Gene;
+import com.scheduler.model.Score;
+import com.scheduler.model.Slot;
+
+import java.util.*;
+
+/**
+ * Ruin-and-recreate large neighbourhood search.
+ *
+ * Each iteration removes a related subset of movable groups (destroy) and puts them
+ * back one by one at the cheapest start in their domain (recreate), most constrained
+ * group first. Related subsets let the search untangle a whole section day or faculty
+ * week at once, which single-group moves cannot do without passing through worse
+ * timetables. The result is accepted or undone according to the configured
+ * {@link Acceptance}, and destroy operators are picked by adaptive weights (ALNS): an
+ * operator that keeps producing new bests or accepted moves is chosen more often.
+ *
+ * All scoring during the search is incremental on an {@link Occupancy}; the returned
+ * timetable is scored in full.
+ */
+public class LargeNeighbourhoodSearch implements Solver {
+
+    public enum Acceptance {
+        NOT_WORSE, // Hill climbing with sideways moves
+        SIMULATED_ANNEALING
+    }
+
+    private enum Destroy {
+        SECTION_DAY, // Everything one section has on one day
+        FACULTY_WEEK, // Everything one faculty member teaches
+        SLOT // Everything in one slot
+    }
+
+    private int maxIterations = 20000;
+    private int maxIterationsWithoutImprovement = 3000;
+    private Acceptance acceptance = Acceptance.SIMULATED_ANNEALING;
+    private double startTemperature = 20.0; // In soft points; a hard violation weighs HARD_WEIGHT
+    private double cooling = 0.9995; // Per iteration
+    private static final int HARD_WEIGHT = 1000; // Scalarisation, used by annealing only
+
+    // ALNS: rewards per outcome, reaction factor and segment length for weight updates
+    private static final double REWARD_BEST = 33;
+    private static final double REWARD_IMPROVED = 9;
+    private static final double REWARD_ACCEPTED = 13;
+    private static final double REACTION = 0.2;
+    private static final int SEGMENT = 100;
+    private static final double MIN_WEIGHT = 0.05;
+
+    private final List<Slot> availableSlots;
+    private final FitnessFunction fitnessFunction = new FitnessFunction();
+    private Random rand = new Random();
+    private long timeLimitMillis = 0; // 0 = no limit
+    private Chromosome warmStart;
+
+    public LargeNeighbourhoodSearch(List<Slot> availableSlots) {
+        this.availableSlots = availableSlots;
+    }
+
+    @Override
+    public void setWarmStart(Chromosome prior) {
+        this.warmStart = prior;
+    }
+
+    @Override
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = Math.max(0, millis);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.rand = new Random(seed);
+    }
+
+    public void setAcceptance(Acceptance acceptance) {
+        this.acceptance = acceptance;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public void setMaxIterationsWithoutImprovement(int iterations) {
+        this.maxIterationsWithoutImprovement = iterations;
+    }
+
+    /**
+     * Annealing schedule: the starting temperature in soft points and the factor it is
+     * multiplied by after every iteration.
+     */
+    public void setTemperature(double start, double cooling) {
+        this.startTemperature = start;
+        this.cooling = cooling;
+    }
+
+    @Override
+    public Chromosome solve(List<Gene> template, boolean[] pinned) {
+        long deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        List<GeneGroup> groups = GeneGroup.build(template, availableSlots);
+        List<GeneGroup> movable = GeneGroup.movable(groups, pinned);
+        List<GeneGroup> placeholders = new ArrayList<>();
+        Chromosome current = initialPlacement(template, groups, movable, pinned != null, placeholders);
+        if (movable.isEmpty()) {
+            current.setScore(fitnessFunction.calculateScore(current));
+            return current;
+        }
+
+        Occupancy occupancy = new Occupancy(availableSlots);
+        if (!occupancy.isChronological() || !occupancy.load(current.getGenes())) {
+            throw new IllegalStateException("Large neighbourhood search needs every class on the slot grid");
+        }
+        // Greedy construction: groups with placeholder starts are recreated like a
+        // destroyed part
+        for (GeneGroup group : placeholders)
+            occupancy.unplace(group);
+        recreate(placeholders, occupancy);
+
+        Score full = fitnessFunction.calculateScore(withPositions(current, occupancy));
+        int constantHard = full.getHard() - occupancy.clashes();
+        int constantSoft = full.getSoft() - occupancy.slotSoft();
+
+        long target = LowerBound.of(template, availableSlots).pack(); // Nothing can beat it
+        long currentScore = full.pack();
+        long bestScore = currentScore;
+        int[] bestStarts = starts(movable, occupancy);
+
+        Destroy[] operators = Destroy.values();
+        double[] weights = new double[operators.length];
+        double[] rewards = new double[operators.length];
+        int[] uses = new int[operators.length];
+        Arrays.fill(weights, 1.0);
+        double temperature = startTemperature;
+        int sinceImprovement = 0;
+
+        for (int iter = 1; iter <= maxIterations && bestScore > target
+                && sinceImprovement < maxIterationsWithoutImprovement && System.nanoTime() < deadline; iter++) {
+            int op = pickOperator(weights);
+            List<GeneGroup> removed = destroy(operators[op], movable, occupancy);
+            sinceImprovement++;
+            if (removed.isEmpty())
+                continue;
+
+            int[] undo = starts(removed, occupancy);
+            for (GeneGroup group : removed)
+                occupancy.unplace(group);
+            recreate(removed, occupancy);
+            long candidate = Score.pack(occupancy.clashes() + constantHard, occupancy.slotSoft() + constantSoft);
+
+            uses[op]++;
+            if (accept(candidate, currentScore, temperature)) {
+                if (candidate < bestScore) {
+                    rewards[op] += REWARD_BEST;
+                    bestScore = candidate;
+                    bestStarts = starts(movable, occupancy);
+                    sinceImprovement = 0;
+                } else if (candidate < currentScore) {
+                    rewards[op] += REWARD_IMPROVED;
+                } else {
+                    rewards[op] += REWARD_ACCEPTED;
+                }
+                currentScore = candidate;
+            } else {
+                for (GeneGroup group : removed)
+                    occupancy.unplace(group);
+                for (int k = 0; k < removed.size(); k++)
+                    occupancy.place(removed.get(k), undo[k]);
+            }
+            temperature *= cooling;
+
+            if (iter % SEGMENT == 0) {
+                for (int i = 0; i < weights.length; i++) {
+                    if (uses[i] > 0)
+                        weights[i] = Math.max(MIN_WEIGHT, (1 - REACTION) * weights[i] + REACTION * rewards[i] / uses[i]);
+                    rewards[i] = 0;
+                    uses[i] = 0;
+                }
+            }
+        }
+
+        for (GeneGroup group : movable)
+            occupancy.unplace(group);
+        for (int k = 0; k < movable.size(); k++)
+            occupancy.place(movable.get(k), bestStarts[k]);
+        Chromosome best = withPositions(current, occupancy);
+        best.setScore(fitnessFunction.calculateScore(best));
+        return best;
+    }
+
+    /**
+     * Template slots for pinned groups (and, when re-solving, for movable groups that
+     * already have usable slots), warm-start slots where available, random starts
+     * elsewhere. Groups given a random start are added to {@code placeholders}; the
+     * greedy construction replaces their starts.
+     */
+    private Chromosome initialPlacement(List<Gene> template, List<GeneGroup> groups, List<GeneGroup> movable,
+            boolean keepTemplateSlots, List<GeneGroup> placeholders) {
+        List<Gene> genes = new ArrayList<>(template.size());
+        for (Gene g : template)
+            genes.add(new Gene(g.getSlot(), g.getSection(), g.getSubject(), new ArrayList<>(g.getFaculty())));
+
+        Set<GeneGroup> movableSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        movableSet.addAll(movable);
+        List<List<Slot>> priorSlots = warmStart == null ? null
+                : new WarmStartMapper(availableSlots).map(template, groups, warmStart);
+        for (int gi = 0; gi < groups.size(); gi++) {
+            GeneGroup group = groups.get(gi);
+            if (!movableSet.contains(group) || (keepTemplateSlots && group.hasSlotsIn(template, availableSlots)))
+                continue;
+            if (priorSlots != null && priorSlots.get(gi) != null) {
+                for (int k = 0; k < group.size(); k++)
+                    genes.get(group.gene(k)).setSlot(priorSlots.get(gi).get(k));
+            } else {
+                group.place(genes, availableSlots, group.randomStart(rand));
+                placeholders.add(group);
+            }
+        }
+        return new Chromosome(genes);
+    }
+
+    private int pickOperator(double[] weights) {
+        double total = 0;
+        for (double w : weights)
+            total += w;
+        double r = rand.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0)
+                return i;
+        }
+        return weights.length - 1;
+    }
+
+    private List<GeneGroup> destroy(Destroy operator, List<GeneGroup> movable, Occupancy occupancy) {
+        GeneGroup seed = movable.get(rand.nextInt(movable.size()));
+        List<GeneGroup> removed = new ArrayList<>();
+        switch (operator) {
+            case SECTION_DAY: {
+                int section = occupancy.section(seed);
+                int day = occupancy.day(occupancy.start(seed));
+                for (GeneGroup group : movable) {
+                    if (occupancy.section(group) == section && occupancy.day(occupancy.start(group)) == day)
+                        removed.add(group);
+                }
+                break;
+            }
+            case FACULTY_WEEK: {
+                int[] team = occupancy.faculty(seed);
+                if (team.length == 0)
+                    break;
+                int faculty = team[rand.nextInt(team.length)];
+                for (GeneGroup group : movable) {
+                    for (int f : occupancy.faculty(group)) {
+                        if (f == faculty) {
+                            removed.add(group);
+                            break;
+                        }
+                    }
+                }
+                break;
+            }
+            case SLOT: {
+                int position = occupancy.start(seed);
+                for (GeneGroup group : movable) {
+                    if (occupancy.covers(group, position))
+                        removed.add(group);
+                }
+                break;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Greedy insertion, most constrained group (smallest domain) first; ties between
+     * groups and between equally cheap starts are broken at random.
+     */
+    private void recreate(List<GeneGroup> groups, Occupancy occupancy) {
+        List<GeneGroup> order = new ArrayList<>(groups);
+        Collections.shuffle(order, rand);
+        order.sort(Comparator.comparingInt(g -> g.getStarts().length));
+        for (GeneGroup group : order) {
+            long bestCost = Long.MAX_VALUE;
+            int bestStart = -1;
+            int ties = 0;
+            for (int start : group.getStarts()) {
+                int clashes = occupancy.clashes();
+                int soft = occupancy.slotSoft();
+                occupancy.place(group, start);
+                long cost = Score.pack(occupancy.clashes() - clashes, 0) + (occupancy.slotSoft() - soft);
+                occupancy.unplace(group);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestStart = start;
+                    ties = 1;
+                } else if (cost == bestCost && rand.nextInt(++ties) == 0) {
+                    bestStart = start;
+                }
+            }
+            occupancy.place(group, bestStart);
+        }
+    }
+
+    private boolean accept(long candidate, long current, double temperature) {
+        if (candidate <= current)
+            return true;
+        if (acceptance != Acceptance.SIMULATED_ANNEALING || temperature <= 0)
+            return false;
+        double delta = scalar(candidate) - scalar(current);
+        return rand.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    private static double scalar(long packed) {
+        return (packed >>> 32) * (double) HARD_WEIGHT + (int) packed;
+    }
+
+    private static int[] starts(List<GeneGroup> groups, Occupancy occupancy) {
+        int[] starts = new int[groups.size()];
+        for (int k = 0; k < starts.length; k++)
+            starts[k] = occupancy.start(groups.get(k));
+        return starts;
+    }
+
+    private static Chromosome withPositions(Chromosome base, Occupancy occupancy) {
+        Chromosome copy = base.deepClone();
+        occupancy.writeBack(copy.getGenes());
+        return copy;
+    }
+}
@@ -0,0 +1,68 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Chromosome;
+import com.scheduler.model.Slot;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Soft-constraint hill climbing for the memetic step of the GA.
+ *
+ * A move places one movable group at another start in its domain. Instead of re-scoring
+ * the whole timetable, the search works on an {@link Occupancy}, which only re-evaluates
+ * the days the move touches. Moves that add a clash are never taken; moves that leave
+ * the score unchanged are, so the search can cross plateaus.
+ *
+ * An instance holds the state of one run and is not shared between threads.
+ */
+class LocalSearch {
+
+    private final List<GeneGroup> groups;
+    private final Occupancy occupancy;
+
+    LocalSearch(List<Slot> slots, List<GeneGroup> groups) {
+        this.groups = groups;
+        this.occupancy = new Occupancy(slots);
+    }
+
+    /**
+     * Runs up to {@code budget} moves on a copy of {@code elite} and returns the copy, or
+     * null if no move was applied. Timetables with slots outside the grid (or a grid that
+     * is not in chronological order) are left alone.
+     */
+    Chromosome improve(Chromosome elite, int budget, Random rand) {
+        if (groups.isEmpty() || !occupancy.isChronological())
+            return null;
+        Chromosome copy = elite.deepClone();
+        if (!occupancy.load(copy.getGenes()))
+            return null;
+
+        int applied = 0;
+        for (int iter = 0; iter < budget; iter++) {
+            GeneGroup group = groups.get(rand.nextInt(groups.size()));
+            int from = occupancy.start(group);
+            int to = group.randomStart(rand);
+            if (to == from)
+                continue;
+
+            int clashesBefore = occupancy.clashes();
+            int softBefore = occupancy.slotSoft();
+            occupancy.unplace(group);
+            occupancy.place(group, to);
+
+            int clashes = occupancy.clashes();
+            if (clashes > clashesBefore || (clashes == clashesBefore && occupancy.slotSoft() > softBefore)) {
+                occupancy.unplace(group); // Undo
+                occupancy.place(group, from);
+            } else {
+                applied++;
+            }
+        }
+        if (applied == 0)
+            return null;
+
+        occupancy.writeBack(copy.getGenes());
+        return copy;
+    }
+}
@@ -0,0 +1,110 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Gene;
+import com.scheduler.model.Score;
+import com.scheduler.model.Slot;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cheap lower bound on the score of any timetable for a template, so the solvers can
+ * stop as soon as they reach it and callers can report how far a result is from optimal.
+ *
+ * Hard part, summed over independent terms:
+ * - a section with more classes than slots clashes at least once per extra class;
+ * - a faculty member with more classes than available slots is double booked (or booked
+ *   while unavailable) at least once per extra class;
+ * - workload over the credit limit is fixed by the faculty assignment in the template.
+ *
+ * Soft part: subject distribution is also fixed by the template, and the 8 AM balance
+ * cannot drop below the variance of the most even split of the classes that must sit at
+ * 8 AM. The soft part is only claimed for timetables that meet the hard part, which is
+ * all a lexicographic bound needs: there every hard term equals its own bound, so
+ * sections without overflow have no clashes and really do fill that many distinct slots.
+ */
+final class LowerBound {
+
+    private LowerBound() {
+    }
+
+    static Score of(List<Gene> template, List<Slot> slots) {
+        int slotCount = slots.size();
+        long morningSlots = 0;
+        for (int p = 0; p < slotCount; p++) {
+            if (slots.get(p).getStartTime().getHour() == 8) // 8 AM slot
+                morningSlots |= 1L << p;
+        }
+        int mornings = Long.bitCount(morningSlots);
+
+        Map<Integer, Integer> sectionClasses = new HashMap<>();
+        Map<Faculty, Integer> facultyClasses = new HashMap<>();
+        Map<Faculty, Double> facultyCredits = new HashMap<>();
+        Map<Integer, Integer> subjectCredits = new HashMap<>();
+        int[][] faculty = new int[template.size()][];
+        int[] subject = new int[template.size()];
+        for (int i = 0; i < template.size(); i++) {
+            Gene g = template.get(i);
+            sectionClasses.merge(g.getSection().getOrdinal(), 1, Integer::sum);
+            subject[i] = g.getSubject().getOrdinal();
+            subjectCredits.put(subject[i], g.getSubject().getCredits());
+            List<Faculty> team = g.getFaculty();
+            faculty[i] = new int[team.size()];
+            for (int k = 0; k < team.size(); k++) {
+                Faculty f = team.get(k);
+                faculty[i][k] = f.getOrdinal();
+                facultyClasses.merge(f, 1, Integer::sum);
+                facultyCredits.merge(f, g.getSubject().isLab() ? 0.5 : 1.0, Double::sum);
+            }
+        }
+
+        int hard = 0;
+        int forcedMornings = 0; // 8 AM classes, counted per section
+        for (int classes : sectionClasses.values()) {
+            hard += Math.max(0, classes - slotCount);
+            forcedMornings += classes > slotCount ? mornings : Math.max(0, classes - (slotCount - mornings));
+        }
+        int mostMornings = 0; // Per faculty member
+        int allMornings = 0;
+        for (Map.Entry<Faculty, Integer> e : facultyClasses.entrySet()) {
+            Faculty f = e.getKey();
+            int classes = e.getValue();
+            long available = GeneGroup.availableMask(f, slots);
+            int overflow = Math.max(0, classes - Long.bitCount(available));
+            hard += overflow;
+            if (facultyCredits.get(f) > f.getMaxTeachingCredits())
+                hard++;
+            int cap = overflow > 0 ? classes : Math.min(classes, Long.bitCount(available & morningSlots));
+            mostMornings = Math.max(mostMornings, cap);
+            allMornings += cap;
+        }
+
+        int[] credits = new int[subjectCredits.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1];
+        subjectCredits.forEach((s, c) -> credits[s] = c);
+        int soft = FitnessFunction.subjectDistribution(faculty, subject, credits)
+                + morningVariance(forcedMornings, allMornings, mostMornings, facultyClasses.size());
+        return new Score(hard, soft);
+    }
+
+    /**
+     * Smallest 8 AM variance over any total between {@code forced} and {@code most}
+     * spread over {@code k} faculty, each taking at most {@code cap}. The most even split
+     * of {@code total} over {@code k} has variance r(k - r)/k with r = total mod k.
+     */
+    private static int morningVariance(int forced, int most, int cap, int faculty) {
+        if (forced == 0 || cap == 0)
+            return 0;
+        int best = Integer.MAX_VALUE;
+        for (int total = forced; total <= most && best > 0; total++) {
+            for (int k = (total + cap - 1) / cap; k <= Math.min(faculty, total) && best > 0; k++) {
+                int r = total % k;
+                // Margin so a variance that is an exact integer cannot round above the
+                // value FitnessFunction computes in floating point
+                best = Math.min(best, (int) Math.max(0, (double) r * (k - r) / k - 1e-9));
+            }
+        }
+        return best == Integer.MAX_VALUE ? 0 : best;
+    }
+}
@@ -0,0 +1,102 @@
+package com.scheduler.engine;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Minimum-cost flow by successive shortest paths on a residual graph held in flat
+ * arrays. Shortest paths use a queue-based Bellman-Ford, so edge costs may be negative as
+ * long as the graph has no negative cycle. With all costs zero it is a plain max-flow.
+ *
+ * Sizes in this application are small (a few hundred nodes), so no potentials or
+ * capacity scaling are used.
+ */
+class MinCostFlow {
+
+    private final int nodes;
+    private int[] head;
+    private int[] next = new int[16];
+    private int[] to = new int[16];
+    private int[] capacity = new int[16];
+    private long[] cost = new long[16];
+    private int edges;
+
+    MinCostFlow(int nodes) {
+        this.nodes = nodes;
+        this.head = new int[nodes];
+        Arrays.fill(head, -1);
+    }
+
+    /** Adds a directed edge and returns its id for {@link #flow(int)}. */
+    int addEdge(int from, int target, int cap, long unitCost) {
+        if (edges + 2 > to.length) {
+            int size = to.length * 2;
+            next = Arrays.copyOf(next, size);
+            to = Arrays.copyOf(to, size);
+            capacity = Arrays.copyOf(capacity, size);
+            cost = Arrays.copyOf(cost, size);
+        }
+        int id = edges;
+        link(from, target, cap, unitCost);
+        link(target, from, 0, -unitCost); // Residual
+        return id;
+    }
+
+    private void link(int from, int target, int cap, long unitCost) {
+        to[edges] = target;
+        capacity[edges] = cap;
+        cost[edges] = unitCost;
+        next[edges] = head[from];
+        head[from] = edges++;
+    }
+
+    /** Flow currently on edge {@code id}. */
+    int flow(int id) {
+        return capacity[id ^ 1];
+    }
+
+    /**
+     * Sends as much flow as possible (up to {@code limit}) from {@code source} to
+     * {@code sink} at minimum cost and returns the amount sent.
+     */
+    int run(int source, int sink, int limit) {
+        long[] dist = new long[nodes];
+        int[] via = new int[nodes];
+        boolean[] queued = new boolean[nodes];
+        Deque<Integer> queue = new ArrayDeque<>();
+        int sent = 0;
+        while (sent < limit) {
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(via, -1);
+            dist[source] = 0;
+            queue.add(source);
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                queued[u] = false;
+                for (int e = head[u]; e != -1; e = next[e]) {
+                    if (capacity[e] > 0 && dist[u] + cost[e] < dist[to[e]]) {
+                        dist[to[e]] = dist[u] + cost[e];
+                        via[to[e]] = e;
+                        if (!queued[to[e]]) {
+                            queued[to[e]] = true;
+                            queue.add(to[e]);
+                        }
+                    }
+                }
+            }
+            if (dist[sink] == Long.MAX_VALUE)
+                break;
+
+            int push = limit - sent;
+            for (int v = sink; v != source; v = to[via[v] ^ 1])
+                push = Math.min(push, capacity[via[v]]);
+            for (int v = sink; v != source; v = to[via[v] ^ 1]) {
+                capacity[via[v]] -= push;
+                capacity[via[v] ^ 1] += push;
+            }
+            sent += push;
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,237 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.EntityRegistry;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Gene;
+import com.scheduler.model.Slot;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained placement of a gene list on a slot grid, for the search
+ * engines that move groups one at a time ({@link LocalSearch}, {@link LargeNeighbourhoodSearch}).
+ *
+ * Besides per-section and per-faculty occupancy it keeps two running totals: clashes
+ * (double bookings) and the soft penalty of the slot-dependent terms (clumping, fatigue,
+ * gaps, 8 AM balance). Placing or removing a group re-evaluates only the section and
+ * faculty days it touches, with the same per-day rules as {@link FitnessFunction}.
+ * Other terms (workload, subject distribution, unavailability outside the domains) do
+ * not change when groups move within their domains, so the totals differ from the full
+ * score by a constant.
+ *
+ * Positions are indices into the slot list, which must be in chronological order. An
+ * instance is not thread-safe.
+ */
+class Occupancy {
+
+    private static final int DAYS = DayOfWeek.values().length;
+
+    private final List<Slot> slots;
+    private final int[] startMin;
+    private final int[] endMin;
+    private final int[] dayOf;
+    private final long[] dayMask;
+    private final boolean[] morning;
+    private final Map<Slot, Integer> position = new HashMap<>();
+
+    // Per gene; pos is -1 while the gene is unplaced
+    private int[] pos;
+    private int[] section;
+    private int[][] faculty;
+
+    // Occupancy: entity * slotCount + position
+    private int[] sectionCount;
+    private int[] facultyCount;
+    private long[] sectionMask;
+    private long[] facultyMask;
+    private int[] morningCount;
+
+    private int clashes;
+    private int slotSoft;
+
+    Occupancy(List<Slot> slots) {
+        this.slots = slots;
+        int n = slots.size();
+        startMin = new int[n];
+        endMin = new int[n];
+        dayOf = new int[n];
+        dayMask = new long[DAYS];
+        morning = new boolean[n];
+        for (int p = 0; p < n; p++) {
+            Slot s = slots.get(p);
+            startMin[p] = EntityRegistry.minuteOfDay(s.getStartTime());
+            endMin[p] = EntityRegistry.minuteOfDay(s.getEndTime());
+            dayOf[p] = s.getDay().ordinal();
+            dayMask[dayOf[p]] |= 1L << p;
+            morning[p] = s.getStartTime().getHour() == 8; // 8 AM slot
+            position.put(s, p);
+        }
+    }
+
+    boolean isChronological() {
+        for (int p = 1; p < slots.size(); p++) {
+            if (dayOf[p] < dayOf[p - 1] || (dayOf[p] == dayOf[p - 1] && startMin[p] < startMin[p - 1]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Loads the placement of {@code genes}. Returns false, leaving the instance unusable,
+     * if a gene sits in a slot outside the grid.
+     */
+    boolean load(List<Gene> genes) {
+        int n = genes.size();
+        pos = new int[n];
+        section = new int[n];
+        faculty = new int[n][];
+        int sections = 0;
+        int faculties = 0;
+        for (int g = 0; g < n; g++) {
+            Gene gene = genes.get(g);
+            Integer p = position.get(gene.getSlot());
+            if (p == null)
+                return false;
+            pos[g] = p;
+            section[g] = gene.getSection().getOrdinal();
+            sections = Math.max(sections, section[g] + 1);
+            List<Faculty> team = gene.getFaculty();
+            faculty[g] = new int[team.size()];
+            for (int k = 0; k < team.size(); k++) {
+                faculty[g][k] = team.get(k).getOrdinal();
+                faculties = Math.max(faculties, faculty[g][k] + 1);
+            }
+        }
+
+        int slotCount = slots.size();
+        sectionCount = new int[sections * slotCount];
+        facultyCount = new int[faculties * slotCount];
+        sectionMask = new long[sections];
+        facultyMask = new long[faculties];
+        morningCount = new int[faculties];
+        clashes = 0;
+        for (int g = 0; g < n; g++)
+            add(g, pos[g]);
+
+        slotSoft = FitnessFunction.morningVariance(morningCount);
+        for (int day = 0; day < DAYS; day++) {
+            for (int sec = 0; sec < sections; sec++)
+                slotSoft += sectionDay(sec, day);
+            for (int f = 0; f < faculties; f++)
+                slotSoft += FitnessFunction.clumpingOnDay(facultyMask[f] & dayMask[day], startMin, endMin);
+        }
+        return true;
+    }
+
+    int clashes() {
+        return clashes;
+    }
+
+    int slotSoft() {
+        return slotSoft;
+    }
+
+    /** Current start of the group, or -1 if it is unplaced. */
+    int start(GeneGroup group) {
+        return pos[group.gene(0)];
+    }
+
+    int day(int position) {
+        return dayOf[position];
+    }
+
+    int section(GeneGroup group) {
+        return section[group.gene(0)];
+    }
+
+    int[] faculty(GeneGroup group) {
+        return faculty[group.gene(0)];
+    }
+
+    /** Whether any gene of the group occupies {@code position}. */
+    boolean covers(GeneGroup group, int position) {
+        int start = start(group);
+        return start >= 0 && position >= start && position < start + group.size();
+    }
+
+    void place(GeneGroup group, int start) {
+        int before = localSoft(group, dayOf[start]);
+        for (int k = 0; k < group.size(); k++) {
+            int g = group.gene(k);
+            pos[g] = start + k;
+            add(g, pos[g]);
+        }
+        slotSoft += localSoft(group, dayOf[start]) - before;
+    }
+
+    void unplace(GeneGroup group) {
+        int start = start(group);
+        int before = localSoft(group, dayOf[start]);
+        for (int k = 0; k < group.size(); k++) {
+            int g = group.gene(k);
+            remove(g, pos[g]);
+            pos[g] = -1;
+        }
+        slotSoft += localSoft(group, dayOf[start]) - before;
+    }
+
+    /** Copies the current positions back into the genes' slots. Every gene must be placed. */
+    void writeBack(List<Gene> genes) {
+        for (int g = 0; g < genes.size(); g++)
+            genes.get(g).setSlot(slots.get(pos[g]));
+    }
+
+    private void add(int g, int p) {
+        int slotCount = slots.size();
+        if (sectionCount[section[g] * slotCount + p]++ > 0)
+            clashes++;
+        sectionMask[section[g]] |= 1L << p;
+        for (int f : faculty[g]) {
+            if (facultyCount[f * slotCount + p]++ > 0)
+                clashes++;
+            facultyMask[f] |= 1L << p;
+            if (morning[p])
+                morningCount[f]++;
+        }
+    }
+
+    private void remove(int g, int p) {
+        int slotCount = slots.size();
+        if (--sectionCount[section[g] * slotCount + p] > 0)
+            clashes--;
+        else
+            sectionMask[section[g]] &= ~(1L << p);
+        for (int f : faculty[g]) {
+            if (--facultyCount[f * slotCount + p] > 0)
+                clashes--;
+            else
+                facultyMask[f] &= ~(1L << p);
+            if (morning[p])
+                morningCount[f]--;
+        }
+    }
+
+    /**
+     * Soft penalty of everything placing or removing the group on {@code day} can change:
+     * its section's day, its faculty's days and the 8 AM balance.
+     */
+    private int localSoft(GeneGroup group, int day) {
+        int g = group.gene(0);
+        int penalty = sectionDay(section[g], day) + FitnessFunction.morningVariance(morningCount);
+        for (int f : faculty[g])
+            penalty += FitnessFunction.clumpingOnDay(facultyMask[f] & dayMask[day], startMin, endMin);
+        return penalty;
+    }
+
+    private int sectionDay(int sec, int day) {
+        long m = sectionMask[sec] & dayMask[day];
+        int classes = 0;
+        for (long rest = m; rest != 0; rest &= rest - 1)
+            classes += sectionCount[sec * slots.size() + Long.numberOfTrailingZeros(rest)];
+        return FitnessFunction.fatigueOnDay(m, startMin, endMin)
+                + FitnessFunction.gapsOnDay(m, classes, startMin, endMin);
+    }
+}
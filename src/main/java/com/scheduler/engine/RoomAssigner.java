@@ -0,0 +1,159 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+
+import java.util.*;
+
+/**
+ * Second solving phase: gives every scheduled class a room once time slots are fixed.
+ *
+ * Classes in different slots never compete for a room, so the problem splits into one
+ * assignment problem per slot, solved exactly with the Hungarian algorithm. A room is
+ * eligible when its type matches the subject (lab/theory) and it seats the section. Among
+ * eligible rooms the cheapest is the one wasting the fewest seats; a lab keeps the room of
+ * its previous hour whenever possible. Keeping rooms out of the GA means the time-slot
+ * search space does not grow with the number of rooms.
+ */
+public class RoomAssigner {
+
+    private static final long INFEASIBLE = 1_000_000_000_000L;
+    private static final long UNASSIGNED = 1_000_000_000L; // Cost of leaving a class without a room
+    private static final long ROOM_SWITCH = 1_000_000L; // Moving a lab block mid-session
+
+    /**
+     * Writes room ids into the genes of {@code chromosome}.
+     *
+     * @return the number of classes that could not be given a room
+     */
+    public int assignRooms(Chromosome chromosome, List<Room> rooms) {
+        List<Gene> genes = chromosome.getGenes();
+        Map<Slot, List<Gene>> bySlot = new TreeMap<>(
+                Comparator.comparing(Slot::getDay).thenComparing(Slot::getStartTime));
+        for (Gene g : genes) {
+            g.setRoomId(null);
+            if (g.getSlot() != null)
+                bySlot.computeIfAbsent(g.getSlot(), k -> new ArrayList<>()).add(g);
+        }
+
+        // Room used by each lab block in the previous hour: section_subject -> (slot, room)
+        Map<String, Slot> lastSlot = new HashMap<>();
+        Map<String, String> lastRoom = new HashMap<>();
+        int unassigned = 0;
+
+        for (Map.Entry<Slot, List<Gene>> entry : bySlot.entrySet()) {
+            Slot slot = entry.getKey();
+            List<Gene> slotGenes = entry.getValue();
+            int n = slotGenes.size();
+            int m = rooms.size() + n; // One dummy "no room" column per class
+
+            long[][] cost = new long[n][m];
+            for (int i = 0; i < n; i++) {
+                Gene g = slotGenes.get(i);
+                String key = blockKey(g);
+                Slot prev = lastSlot.get(key);
+                String preferred = prev != null && prev.getDay() == slot.getDay()
+                        && prev.getEndTime().equals(slot.getStartTime()) ? lastRoom.get(key) : null;
+
+                for (int j = 0; j < rooms.size(); j++) {
+                    cost[i][j] = roomCost(g, rooms.get(j), preferred);
+                }
+                for (int j = rooms.size(); j < m; j++) {
+                    cost[i][j] = UNASSIGNED;
+                }
+            }
+
+            int[] assignment = hungarian(cost, n, m);
+            for (int i = 0; i < n; i++) {
+                Gene g = slotGenes.get(i);
+                int j = assignment[i];
+                if (j < rooms.size() && cost[i][j] < INFEASIBLE) {
+                    g.setRoomId(rooms.get(j).getId());
+                    if (g.getSubject().isLab()) {
+                        lastSlot.put(blockKey(g), slot);
+                        lastRoom.put(blockKey(g), g.getRoomId());
+                    }
+                } else {
+                    unassigned++;
+                }
+            }
+        }
+        return unassigned;
+    }
+
+    private long roomCost(Gene gene, Room room, String preferredRoomId) {
+        if (room.isLab() != gene.getSubject().isLab())
+            return INFEASIBLE;
+        int strength = gene.getSection().getStrength();
+        if (room.getCapacity() < strength)
+            return INFEASIBLE;
+        long cost = room.getCapacity() - strength; // Wasted seats
+        if (preferredRoomId != null && !preferredRoomId.equals(room.getId()))
+            cost += ROOM_SWITCH;
+        return cost;
+    }
+
+    private String blockKey(Gene g) {
+        return g.getSection().getId() + "_" + g.getSubject().getCode();
+    }
+
+    /**
+     * Min-cost assignment of n rows to distinct columns (n <= m), O(n^2 m).
+     *
+     * @return the column chosen for each row
+     */
+    static int[] hungarian(long[][] cost, int n, int m) {
+        long[] u = new long[n + 1];
+        long[] v = new long[m + 1];
+        int[] p = new int[m + 1]; // p[j] = row matched to column j (1-based, 0 = free)
+        int[] way = new int[m + 1];
+        long[] minv = new long[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                int j1 = 0;
+                long delta = Long.MAX_VALUE;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j])
+                        continue;
+                    long cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0)
+                assignment[p[j] - 1] = j - 1;
+        }
+        return assignment;
+    }
+}
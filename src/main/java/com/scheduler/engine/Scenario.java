@@ -0,0 +1,76 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Section;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+/**
+ * A what-if variation of a base dataset, e.g. "hire two more DSA faculty" or "no classes
+ * on Saturday". The base lists are never modified; a scenario only describes its delta.
+ */
+public class Scenario {
+    private final String name;
+    private final List<Faculty> addedFaculty = new ArrayList<>();
+    private final Set<String> removedFacultyIds = new HashSet<>();
+    private final List<Section> addedSections = new ArrayList<>();
+    private final Set<String> removedSectionIds = new HashSet<>();
+    private final Set<DayOfWeek> removedDays = EnumSet.noneOf(DayOfWeek.class);
+
+    public Scenario(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void addFaculty(Faculty faculty) {
+        addedFaculty.add(faculty);
+    }
+
+    public List<Faculty> getAddedFaculty() {
+        return Collections.unmodifiableList(addedFaculty);
+    }
+
+    public void removeFaculty(String facultyId) {
+        removedFacultyIds.add(facultyId);
+    }
+
+    public void addSection(Section section) {
+        addedSections.add(section);
+    }
+
+    public void removeSection(String sectionId) {
+        removedSectionIds.add(sectionId);
+    }
+
+    public void removeDay(DayOfWeek day) {
+        removedDays.add(day);
+    }
+
+    public List<Faculty> applyToFaculty(List<Faculty> base) {
+        List<Faculty> result = new ArrayList<>(base.size() + addedFaculty.size());
+        for (Faculty f : base) {
+            if (!removedFacultyIds.contains(f.getId()))
+                result.add(f);
+        }
+        result.addAll(addedFaculty);
+        return result;
+    }
+
+    public List<Section> applyToSections(List<Section> base) {
+        List<Section> result = new ArrayList<>(base.size() + addedSections.size());
+        for (Section s : base) {
+            if (!removedSectionIds.contains(s.getId()))
+                result.add(s);
+        }
+        result.addAll(addedSections);
+        return result;
+    }
+
+    public Set<DayOfWeek> getRemovedDays() {
+        return removedDays;
+    }
+}
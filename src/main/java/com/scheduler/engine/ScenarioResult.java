@@ -0,0 +1,97 @@
+package com.scheduler.engine;
+
+import java.util.List;
+
+/**
+ * Outcome of one {@link Scenario}: whether it could be scheduled and how good the result is.
+ */
+public class ScenarioResult {
+    private final String name;
+    private final boolean feasible;
+    private final int hardViolations;
+    private final int softViolations;
+    private final double fitness;
+    private final double loadStdDev; // Std dev of faculty utilisation (used / max credits)
+    private final long elapsedMillis;
+    private final String error; // Why generation failed, null if it ran
+
+    public ScenarioResult(String name, int hardViolations, int softViolations, double fitness, double loadStdDev,
+            long elapsedMillis) {
+        this.name = name;
+        this.feasible = hardViolations == 0;
+        this.hardViolations = hardViolations;
+        this.softViolations = softViolations;
+        this.fitness = fitness;
+        this.loadStdDev = loadStdDev;
+        this.elapsedMillis = elapsedMillis;
+        this.error = null;
+    }
+
+    public ScenarioResult(String name, String error, long elapsedMillis) {
+        this.name = name;
+        this.feasible = false;
+        this.hardViolations = -1;
+        this.softViolations = -1;
+        this.fitness = 0;
+        this.loadStdDev = 0;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    public int getHardViolations() {
+        return hardViolations;
+    }
+
+    public int getSoftViolations() {
+        return softViolations;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public double getLoadStdDev() {
+        return loadStdDev;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Renders results as a fixed-width comparison table, one row per scenario.
+     */
+    public static String formatTable(List<ScenarioResult> results) {
+        int nameWidth = "Scenario".length();
+        for (ScenarioResult r : results)
+            nameWidth = Math.max(nameWidth, r.name.length());
+
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-" + nameWidth + "s  %-8s  %5s  %5s  %8s  %8s  %8s%n", "Scenario", "Feasible",
+                "Hard", "Soft", "Fitness", "LoadSD", "Time(ms)");
+        sb.append(header);
+        sb.append("-".repeat(header.length() - 1)).append(System.lineSeparator());
+        for (ScenarioResult r : results) {
+            if (r.error != null) {
+                sb.append(String.format("%-" + nameWidth + "s  %-8s  %s%n", r.name, "NO", r.error));
+            } else {
+                sb.append(String.format("%-" + nameWidth + "s  %-8s  %5d  %5d  %8.4f  %8.3f  %8d%n", r.name,
+                        r.feasible ? "YES" : "NO", r.hardViolations, r.softViolations, r.fitness, r.loadStdDev,
+                        r.elapsedMillis));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Solves a batch of what-if {@link Scenario}s against one base dataset concurrently.
+ *
+ * The slot grid and subject list are built once and shared read-only by every scenario;
+ * each scenario only materialises its own faculty and section lists.
+ */
+public class ScenarioRunner {
+
+    private final int threads;
+
+    public ScenarioRunner(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public List<ScenarioResult> run(List<Faculty> facultyList, List<Subject> subjectList, List<Section> sectionList,
+            List<Scenario> scenarios) {
+        List<Slot> baseSlots = Collections.unmodifiableList(new TimetableGenerator().createSlots());
+        List<Subject> subjects = Collections.unmodifiableList(new ArrayList<>(subjectList));
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, scenarios.size())));
+        try {
+            List<Future<ScenarioResult>> futures = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                futures.add(pool.submit(() -> solve(scenario, baseSlots, facultyList, subjects, sectionList)));
+            }
+            List<ScenarioResult> results = new ArrayList<>();
+            for (Future<ScenarioResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scenario run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario run failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ScenarioResult solve(Scenario scenario, List<Slot> baseSlots, List<Faculty> facultyList,
+            List<Subject> subjects, List<Section> sectionList) {
+        long start = System.currentTimeMillis();
+        List<Faculty> faculty = scenario.applyToFaculty(facultyList);
+        List<Section> sections = scenario.applyToSections(sectionList);
+        List<Slot> slots = scenario.getRemovedDays().isEmpty() ? baseSlots
+                : baseSlots.stream().filter(s -> !scenario.getRemovedDays().contains(s.getDay()))
+                        .collect(Collectors.toList());
+
+        try {
+            // The scenario pool already uses the cores; don't fan out further per scenario
+            TimetableGenerator generator = new TimetableGenerator();
+            generator.setThreads(1);
+            Chromosome result = generator.generateTimetable(slots, faculty, subjects, sections, null);
+
+            Score score = new FitnessFunction().calculateScore(result);
+            return new ScenarioResult(scenario.getName(), score.getHard(), score.getSoft(),
+                    score.toFitness(), loadStdDev(result, faculty),
+                    System.currentTimeMillis() - start);
+        } catch (IllegalStateException e) {
+            // createGenes rejects scenarios that cannot be staffed
+            return new ScenarioResult(scenario.getName(), e.getMessage(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private double loadStdDev(Chromosome chromosome, List<Faculty> faculty) {
+        Map<Faculty, Double> used = new HashMap<>();
+        for (Gene g : chromosome.getGenes()) {
+            double creditValue = g.getSubject().isLab() ? 0.5 : 1.0;
+            for (Faculty f : g.getFaculty()) {
+                used.merge(f, creditValue, Double::sum);
+            }
+        }
+        if (faculty.isEmpty())
+            return 0;
+        double[] utilisation = new double[faculty.size()];
+        double mean = 0;
+        for (int i = 0; i < faculty.size(); i++) {
+            Faculty f = faculty.get(i);
+            utilisation[i] = used.getOrDefault(f, 0.0) / Math.max(1, f.getMaxTeachingCredits());
+            mean += utilisation[i];
+        }
+        mean /= utilisation.length;
+        double variance = 0;
+        for (double u : utilisation)
+            variance += (u - mean) * (u - mean);
+        return Math.sqrt(variance / utilisation.length);
+    }
+}
@@ -0,0 +1,34 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Chromosome;
+import com.scheduler.model.Gene;
+
+import java.util.List;
+
+/**
+ * A search engine that assigns slots to a gene template. Implementations keep per-run
+ * state, so one instance solves one template at a time.
+ */
+public interface Solver {
+
+    /**
+     * Returns a scored timetable for {@code template}. Genes flagged in {@code pinned}
+     * (which may be null) keep the slot they carry in the template.
+     */
+    Chromosome solve(List<Gene> template, boolean[] pinned);
+
+    /**
+     * Seeds the search from a previous timetable; see {@link WarmStartMapper}.
+     */
+    void setWarmStart(Chromosome prior);
+
+    /**
+     * Stops the search once about {@code millis} milliseconds have passed and returns the
+     * best timetable found so far. 0 means no limit. The engine's own stopping rules still
+     * apply, so the search may end sooner.
+     */
+    void setTimeLimit(long millis);
+
+    /** Fixes the random seed, so the same inputs and seed give the same timetable. */
+    void setSeed(long seed);
+}
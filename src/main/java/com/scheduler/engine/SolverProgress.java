@@ -0,0 +1,75 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.Score;
+
+/**
+ * Snapshot of a running {@link GeneticAlgorithm}, passed to its {@link Listener}.
+ */
+public final class SolverProgress {
+
+    /**
+     * Receives progress on the solver thread, at most every few tens of milliseconds and
+     * once more when the search ends. Implementations must return quickly (e.g. store the
+     * latest value for a UI to poll), since the search waits for them. When independent
+     * components are solved in parallel, calls come from several threads, one at a time,
+     * and report the components combined.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void progress(SolverProgress progress);
+    }
+
+    private final int generation;
+    private final Score best;
+    private final Score worst; // Of the current population
+    private final long evaluations; // Full fitness evaluations so far; cache hits do not count
+    private final double evaluationsPerSecond; // Since the previous report
+    private final long elapsedMillis;
+    private final boolean finished;
+
+    SolverProgress(int generation, Score best, Score worst, long evaluations, double evaluationsPerSecond,
+            long elapsedMillis, boolean finished) {
+        this.generation = generation;
+        this.best = best;
+        this.worst = worst;
+        this.evaluations = evaluations;
+        this.evaluationsPerSecond = evaluationsPerSecond;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public Score getBest() {
+        return best;
+    }
+
+    public Score getWorst() {
+        return worst;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getEvaluationsPerSecond() {
+        return evaluationsPerSecond;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Whether this is the last report of the run. */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Generation %d | Best %s | Worst %s | %.0f evals/s", generation, best, worst,
+                evaluationsPerSecond);
+    }
+}
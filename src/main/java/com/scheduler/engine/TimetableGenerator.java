@@ -4,14 +4,135 @@ import com.scheduler.model.*;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 public class TimetableGenerator {
 
+    private static final int POLISH_MOVES_PER_GROUP = 50; // Hill-climbing moves after components are merged
+
+    public enum Algorithm {
+        GENETIC, // GeneticAlgorithm
+        LNS // LargeNeighbourhoodSearch
+    }
+
+    private Algorithm algorithm = Algorithm.GENETIC;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int memeticInterval = 0; // Off unless enabled
+    private double eliteFraction;
+    private int localSearchBudget;
+    private Score lowerBound; // Of the last generated timetable
+    private List<FeasibilityCheck.Diagnostic> warnings = Collections.emptyList(); // Of the last generated timetable
+    private boolean balancedAssignment = false; // Greedy faculty assignment unless enabled
+    private long timeLimitMillis = 0; // Whole run, all components; 0 = no limit
+    private long deadline; // System.nanoTime() at which the current run must stop
+    private Long seed; // null = unseeded
+    private SolverProgress.Listener progressListener; // Genetic algorithm only
+
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Turns on the GA's memetic mode for every solve; see
+     * {@link GeneticAlgorithm#setMemetic(int, double, int)}.
+     */
+    public void setMemetic(int everyGenerations, double eliteFraction, int movesPerElite) {
+        this.memeticInterval = everyGenerations;
+        this.eliteFraction = eliteFraction;
+        this.localSearchBudget = movesPerElite;
+    }
+
+    /**
+     * Caps the wall-clock time of each {@link #generateTimetable} or {@link #reschedule}
+     * call; solvers return their best timetable when it runs out. 0 means no limit.
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimitMillis = Math.max(0, millis);
+    }
+
+    /**
+     * Makes runs reproducible. Independent components are solved with seeds
+     * {@code seed}, {@code seed + 1}, ... in component order.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Receives progress from the genetic algorithm; see {@link SolverProgress.Listener}.
+     * Independent components solved in parallel are reported as one run, see
+     * {@link ComponentProgress}. Not called when the LNS solver is selected.
+     */
+    public void setProgressListener(SolverProgress.Listener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Assigns faculty to classes as a load-balancing min-cost flow instead of greedily,
+     * section by section; see {@link FacultyAssignment}. Succeeds on instances where the
+     * greedy pass runs out of capacity although some assignment fits.
+     */
+    public void setBalancedAssignment(boolean balancedAssignment) {
+        this.balancedAssignment = balancedAssignment;
+    }
+
+    /**
+     * Lower bound on the score of the last generated timetable (see {@link LowerBound}),
+     * or null before the first run. Compare a result against it with {@link Score#gap}.
+     */
+    public Score getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Feasibility warnings for the inputs of the last generated timetable, from the check
+     * generation runs first; errors are thrown instead, see {@link #generateTimetable}.
+     */
+    public List<FeasibilityCheck.Diagnostic> getWarnings() {
+        return warnings;
+    }
+
     public Chromosome generateTimetable(List<Faculty> facultyList, List<Subject> subjectList,
             List<Section> sectionList) {
+        return generateTimetable(facultyList, subjectList, sectionList, null);
+    }
+
+    /**
+     * Generates a timetable, warm-starting the search from {@code previous} (e.g. last
+     * semester's timetable) when it is not null.
+     */
+    public Chromosome generateTimetable(List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList, Chromosome previous) {
         // 1. Define Slots (Hardcoded for now as per requirements)
-        List<Slot> slots = createSlots();
+        return generateTimetable(createSlots(), facultyList, subjectList, sectionList, previous);
+    }
+
+    /**
+     * Diagnostics for inputs that cannot be scheduled on the standard slot grid; see
+     * {@link FeasibilityCheck}. Generation runs the same check and fails fast on errors.
+     */
+    public List<FeasibilityCheck.Diagnostic> checkFeasibility(List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList) {
+        return FeasibilityCheck.check(facultyList, subjectList, sectionList, createSlots());
+    }
+
+    /**
+     * Generates a timetable over an explicit slot grid, e.g. one with a day removed.
+     *
+     * @throws FeasibilityCheck.InfeasibleException if the inputs cannot be scheduled at all
+     */
+    Chromosome generateTimetable(List<Slot> slots, List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList, Chromosome previous) {
+        startClock();
+        warnings = FeasibilityCheck.requireFeasible(facultyList, subjectList, sectionList, slots);
 
         // 2. Create Genes (The classes to be scheduled)
         List<Gene> templateGenes = createGenes(facultyList, subjectList, sectionList);
@@ -20,13 +141,185 @@ public class TimetableGenerator {
         if (templateGenes.isEmpty()) {
             throw new IllegalStateException("No classes to schedule. Check inputs.");
         }
+        lowerBound = LowerBound.of(templateGenes, slots);
+
+        // 4. Split into independent sub-problems (sections that never share faculty)
+        List<List<Integer>> components = findComponents(templateGenes);
+        if (components.size() == 1) {
+            return newSolver(slots, previous).solve(templateGenes, null);
+        }
+
+        // 5. Run one GA per component, stitch the results back together and polish the whole
+        return solveComponents(slots, templateGenes, components, previous);
+    }
+
+    Solver newSolver(List<Slot> slots, Chromosome previous) {
+        return newSolver(slots, previous, threads, 0, progressListener);
+    }
+
+    void startClock() {
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000;
+    }
+
+    /** {@code component} offsets the seed, so parallel solvers do not repeat each other. */
+    private Solver newSolver(List<Slot> slots, Chromosome previous, int solverThreads, int component,
+            SolverProgress.Listener listener) {
+        Solver solver;
+        if (algorithm == Algorithm.LNS) {
+            solver = new LargeNeighbourhoodSearch(slots);
+        } else {
+            GeneticAlgorithm ga = new GeneticAlgorithm(slots);
+            if (memeticInterval > 0) {
+                ga.setMemetic(memeticInterval, eliteFraction, localSearchBudget);
+                ga.setMemeticThreads(solverThreads);
+            }
+            ga.setProgressListener(listener);
+            solver = ga;
+        }
+        if (previous != null) {
+            solver.setWarmStart(previous);
+        }
+        if (timeLimitMillis > 0) {
+            solver.setTimeLimit(Math.max(1, (deadline - System.nanoTime()) / 1_000_000)); // What is left of the run
+        }
+        if (seed != null) {
+            solver.setSeed(seed + component);
+        }
+        return solver;
+    }
+
+    /**
+     * Groups gene indices into connected components of the section-faculty interaction
+     * graph. Genes in different components share neither a section nor a faculty member,
+     * so every constraint except the 8 AM balance, whose mean is taken over all faculty,
+     * splits along components. Each component is solved on its own and the merged
+     * timetable is then polished as a whole for that balance; see {@link #polish}.
+     */
+    List<List<Integer>> findComponents(List<Gene> genes) {
+        // Nodes: sections first, then faculty, both by registry ordinal
+        int sectionCount = 0;
+        int facultyCount = 0;
+        for (Gene g : genes) {
+            sectionCount = Math.max(sectionCount, g.getSection().getOrdinal() + 1);
+            for (Faculty f : g.getFaculty())
+                facultyCount = Math.max(facultyCount, f.getOrdinal() + 1);
+        }
+        int[] parent = new int[sectionCount + facultyCount];
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+
+        for (Gene g : genes) {
+            int sectionNode = g.getSection().getOrdinal();
+            for (Faculty f : g.getFaculty()) {
+                union(parent, sectionNode, sectionCount + f.getOrdinal());
+            }
+        }
+
+        // Keep components in order of their first gene so results are deterministic
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < genes.size(); i++) {
+            int root = find(parent, genes.get(i).getSection().getOrdinal());
+            byRoot.computeIfAbsent(root, k -> new ArrayList<>()).add(i);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    private int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // Path halving
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb)
+            parent[ra] = rb;
+    }
+
+    private Chromosome solveComponents(List<Slot> slots, List<Gene> templateGenes, List<List<Integer>> components,
+            Chromosome previous) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, components.size()));
+        int solverThreads = Math.max(1, threads / components.size()); // Left over for local search
+        ComponentProgress progress = progressListener == null ? null
+                : new ComponentProgress(progressListener, components.size());
+        try {
+            List<Future<Chromosome>> futures = new ArrayList<>();
+            for (int c = 0; c < components.size(); c++) {
+                List<Integer> component = components.get(c);
+                int componentIndex = c;
+                SolverProgress.Listener listener = progress == null ? null : progress.forComponent(c);
+                List<Gene> subTemplate = new ArrayList<>(component.size());
+                for (int index : component) {
+                    subTemplate.add(templateGenes.get(index));
+                }
+                // Each task gets its own solver: the engines keep per-run state (gene groups)
+                futures.add(pool.submit(() -> newSolver(slots, previous, solverThreads, componentIndex, listener)
+                        .solve(subTemplate, null)));
+            }
+
+            List<Gene> merged = new ArrayList<>(Collections.nCopies(templateGenes.size(), null));
+            for (int c = 0; c < components.size(); c++) {
+                List<Gene> solved = futures.get(c).get().getGenes();
+                List<Integer> component = components.get(c);
+                for (int k = 0; k < component.size(); k++) {
+                    merged.set(component.get(k), solved.get(k));
+                }
+            }
+
+            return polish(slots, templateGenes, new Chromosome(merged));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Timetable generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to solve a timetable component: " + e.getCause().getMessage(),
+                    e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-        // 4. Run GA
-        GeneticAlgorithm ga = new GeneticAlgorithm(slots);
-        return ga.evolve(templateGenes);
+    /**
+     * Hill-climbs a merged timetable over all of its genes at once (see {@link LocalSearch}).
+     * The components were solved blind to each other's 8 AM classes, so the balance across
+     * them is only repaired here. Returns the polished timetable if it scores better,
+     * otherwise {@code merged}; either way the result is scored.
+     */
+    Chromosome polish(List<Slot> slots, List<Gene> templateGenes, Chromosome merged) {
+        FitnessFunction ff = new FitnessFunction();
+        merged.setScore(ff.calculateScore(merged));
+        List<GeneGroup> groups = GeneGroup.build(templateGenes, slots);
+        Random rand = seed == null ? new Random() : new Random(seed);
+        Chromosome polished = new LocalSearch(slots, groups).improve(merged, POLISH_MOVES_PER_GROUP * groups.size(),
+                rand);
+        if (polished == null)
+            return merged;
+        polished.setScore(ff.calculateScore(polished));
+        return polished.getScore().isBetterThan(merged.getScore()) ? polished : merged;
     }
 
-    private List<Slot> createSlots() {
+    /**
+     * Re-solves only the part of {@code current} touched by {@code changes}; see
+     * {@link IncrementalRescheduler}.
+     */
+    public Chromosome reschedule(Chromosome current, ChangeSet changes, List<Faculty> facultyList,
+            List<Subject> subjectList) {
+        startClock();
+        return new IncrementalRescheduler(this).reschedule(current, changes, facultyList, subjectList);
+    }
+
+    /**
+     * Assigns rooms to an already scheduled timetable; see {@link RoomAssigner}.
+     *
+     * @return the number of classes left without a room
+     */
+    public int assignRooms(Chromosome timetable, List<Room> rooms) {
+        return new RoomAssigner().assignRooms(timetable, rooms);
+    }
+
+    public List<Slot> createSlots() {
         List<Slot> slots = new ArrayList<>();
         // Mon-Sat (Saturday half day)
         DayOfWeek[] days = { DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
@@ -50,16 +343,31 @@ public class TimetableGenerator {
                 slots.add(new Slot(day, LocalTime.of(16, 45), LocalTime.of(17, 40), Slot.Type.AFTERNOON));
             }
         }
+        EntityRegistry.registerSlots(slots);
         return slots;
     }
 
     private List<Gene> createGenes(List<Faculty> facultyList, List<Subject> subjectList, List<Section> sectionList) {
-        List<Gene> genes = new ArrayList<>();
-
         // Track assigned load in CREDITS (Double)
         Map<Faculty, Double> currentLoad = new HashMap<>();
         for (Faculty f : facultyList)
             currentLoad.put(f, 0.0);
+        return createGenes(facultyList, subjectList, sectionList, currentLoad);
+    }
+
+    /**
+     * Same as {@link #createGenes(List, List, List)} but starts from an existing load, so genes
+     * for extra sections can be created on top of an already assigned timetable. The map is
+     * updated in place.
+     */
+    List<Gene> createGenes(List<Faculty> facultyList, List<Subject> subjectList, List<Section> sectionList,
+            Map<Faculty, Double> currentLoad) {
+        if (balancedAssignment) {
+            return new FacultyAssignment(facultyList, currentLoad).createGenes(subjectList, sectionList);
+        }
+        List<Gene> genes = new ArrayList<>();
+        for (Faculty f : facultyList)
+            currentLoad.putIfAbsent(f, 0.0);
 
         // Map to store Theory assignments: Section.id_Subject.code -> AssignedFaculty
         Map<String, Faculty> sectionTheoryAssignments = new HashMap<>();
@@ -146,11 +454,7 @@ public class TimetableGenerator {
                 }
 
                 // 2. Determine required faculty count
-                // User Request: Unix and Web Dev labs need only 1 faculty. Others need 4.
-                int requiredFacultyCount = 4;
-                if (subject.getCode().equalsIgnoreCase("UNIX_L") || subject.getCode().equalsIgnoreCase("WEB_L")) {
-                    requiredFacultyCount = 1;
-                }
+                int requiredFacultyCount = labTeamSize(subject);
 
                 // 3. Fill remaining spots
                 eligibleFaculty.sort(Comparator.comparingDouble(f -> currentLoad.getOrDefault(f, 0.0)));
@@ -179,4 +483,12 @@ public class TimetableGenerator {
         }
         return genes;
     }
+
+    static int labTeamSize(Subject lab) {
+        // User Request: Unix and Web Dev labs need only 1 faculty. Others need 4.
+        if (lab.getCode().equalsIgnoreCase("UNIX_L") || lab.getCode().equalsIgnoreCase("WEB_L")) {
+            return 1;
+        }
+        return 4;
+    }
 }
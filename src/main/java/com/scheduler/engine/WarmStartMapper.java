@@ -0,0 +1,137 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a previous timetable onto a new gene template.
+ *
+ * Prior classes are matched by section, subject and teaching team first, then by section
+ * and subject alone (the team may have changed between semesters). Prior classes with no
+ * counterpart in the new template are dropped; template groups with no usable prior slot
+ * are placed greedily in the first slot block that does not clash with what has already
+ * been placed.
+ */
+class WarmStartMapper {
+
+    private final List<Slot> availableSlots;
+
+    WarmStartMapper(List<Slot> availableSlots) {
+        this.availableSlots = availableSlots;
+    }
+
+    /**
+     * Returns one slot list per group, in the same order as {@code groups}.
+     */
+    List<List<Slot>> map(List<Gene> template, List<GeneGroup> groups, Chromosome prior) {
+        // Prior genes per course, in slot order so lab blocks stay adjacent
+        Map<String, List<Gene>> pool = new HashMap<>();
+        List<Gene> priorGenes = new ArrayList<>(prior.getGenes());
+        priorGenes.removeIf(g -> g.getSlot() == null || !availableSlots.contains(g.getSlot()));
+        priorGenes.sort(Comparator.comparingInt(g -> availableSlots.indexOf(g.getSlot())));
+        for (Gene g : priorGenes) {
+            pool.computeIfAbsent(courseKey(g), k -> new ArrayList<>()).add(g);
+        }
+
+        List<List<Slot>> result = new ArrayList<>(Collections.nCopies(groups.size(), null));
+        Map<String, Set<Slot>> occupied = new HashMap<>();
+
+        // Pass 1: reuse prior slots wherever they still form a valid placement
+        for (int i = 0; i < groups.size(); i++) {
+            Gene first = template.get(groups.get(i).gene(0));
+            List<Gene> candidates = pool.get(courseKey(first));
+            if (candidates == null)
+                continue;
+            GeneGroup group = groups.get(i);
+            String team = teamKey(first);
+            List<Slot> slots = take(candidates, group, team);
+            if (slots == null)
+                slots = take(candidates, group, null);
+            if (slots != null) {
+                result.set(i, slots);
+                occupy(occupied, first, slots);
+            }
+        }
+
+        // Pass 2: greedy first-fit for genes that are new this semester
+        for (int i = 0; i < groups.size(); i++) {
+            if (result.get(i) != null)
+                continue;
+            Gene first = template.get(groups.get(i).gene(0));
+            List<Slot> slots = firstFit(occupied, first, groups.get(i));
+            result.set(i, slots);
+            if (slots != null)
+                occupy(occupied, first, slots);
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns prior slots of the course that form a start in the group's domain,
+     * optionally restricted to genes taught by the same team.
+     */
+    private List<Slot> take(List<Gene> candidates, GeneGroup group, String team) {
+        List<Gene> matching = team == null ? candidates
+                : candidates.stream().filter(g -> teamKey(g).equals(team)).collect(Collectors.toList());
+        int size = group.size();
+        for (int start = 0; start + size <= matching.size(); start++) {
+            List<Gene> block = matching.subList(start, start + size);
+            // Use the grid's own slot objects so registry ordinals carry over
+            List<Slot> slots = block.stream().map(g -> availableSlots.get(availableSlots.indexOf(g.getSlot())))
+                    .collect(Collectors.toList());
+            if (isConsecutive(slots) && group.allows(availableSlots.indexOf(slots.get(0)))) {
+                candidates.removeAll(new ArrayList<>(block));
+                return slots;
+            }
+        }
+        return null;
+    }
+
+    private List<Slot> firstFit(Map<String, Set<Slot>> occupied, Gene gene, GeneGroup group) {
+        for (int start : group.getStarts()) {
+            List<Slot> block = availableSlots.subList(start, start + group.size());
+            boolean free = block.stream().noneMatch(s -> isBusy(occupied, gene, s));
+            if (free)
+                return new ArrayList<>(block);
+        }
+        return null; // Nothing free; the caller falls back to a random placement
+    }
+
+    private boolean isConsecutive(List<Slot> block) {
+        for (int k = 1; k < block.size(); k++) {
+            Slot prev = block.get(k - 1);
+            Slot curr = block.get(k);
+            if (curr.getDay() != prev.getDay() || !prev.getEndTime().equals(curr.getStartTime()))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean isBusy(Map<String, Set<Slot>> occupied, Gene gene, Slot slot) {
+        if (occupied.getOrDefault("S:" + gene.getSection().getId(), Collections.emptySet()).contains(slot))
+            return true;
+        for (Faculty f : gene.getFaculty()) {
+            if (occupied.getOrDefault("F:" + f.getId(), Collections.emptySet()).contains(slot))
+                return true;
+        }
+        return false;
+    }
+
+    private void occupy(Map<String, Set<Slot>> occupied, Gene gene, List<Slot> slots) {
+        occupied.computeIfAbsent("S:" + gene.getSection().getId(), k -> new HashSet<>()).addAll(slots);
+        for (Faculty f : gene.getFaculty()) {
+            occupied.computeIfAbsent("F:" + f.getId(), k -> new HashSet<>()).addAll(slots);
+        }
+    }
+
+    private String courseKey(Gene g) {
+        return g.getSection().getId() + "_" + g.getSubject().getCode();
+    }
+
+    private String teamKey(Gene g) {
+        String team = g.getFaculty().stream().map(Faculty::getId).sorted().collect(Collectors.joining(","));
+        return courseKey(g) + "_" + team;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Random;
 public class Chromosome {
     private List<Gene> genes;
     private double fitness = -1;
+    private long packedScore = Score.WORST_PACKED;
     private boolean isFitnessChanged = true;
 
     public Chromosome(List<Gene> genes) {
@@ -36,6 +37,26 @@ public class Chromosome {
         this.isFitnessChanged = false;
     }
 
+    /**
+     * The score set by the last evaluation, or null if the chromosome was never scored.
+     */
+    public Score getScore() {
+        return packedScore == Score.WORST_PACKED ? null : Score.unpack(packedScore);
+    }
+
+    /**
+     * The score in packed form, for comparisons that should not allocate. Unscored
+     * chromosomes compare worse than any scored one.
+     */
+    public long getPackedScore() {
+        return packedScore;
+    }
+
+    public void setScore(Score score) {
+        this.packedScore = score.pack();
+        setFitness(score.toFitness());
+    }
+
     public void addGene(Gene gene) {
         this.genes.add(gene);
         this.isFitnessChanged = true;
@@ -52,7 +73,9 @@ public class Chromosome {
             // For now, let's just copy the list. Mutation will replace Gene objects or
             // modify them.
             // If we modify Gene objects, we need deep copy.
-            newGenes.add(new Gene(g.getSlot(), g.getSection(), g.getSubject(), new ArrayList<>(g.getFaculty())));
+            Gene copy = new Gene(g.getSlot(), g.getSection(), g.getSubject(), new ArrayList<>(g.getFaculty()));
+            copy.setRoomId(g.getRoomId());
+            newGenes.add(copy);
         }
         return new Chromosome(newGenes);
     }
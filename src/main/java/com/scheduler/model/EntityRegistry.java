@@ -0,0 +1,98 @@
+package com.scheduler.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns every entity into a dense int ordinal so hot code can index plain arrays instead
+ * of hashing objects or concatenating id strings.
+ *
+ * Faculty, sections and subjects are interned by id, process-wide: the same id always maps
+ * to the same ordinal, so re-importing a CSV or building scenario variants never collides.
+ * Ordinals are assigned eagerly at import and lazily on first use for entities created in
+ * code (tests, scenario hires).
+ *
+ * Slots are numbered per weekly grid instead: {@link #registerSlots} gives each slot of a
+ * full grid its chronological position, which lets a set of slots be stored as a
+ * {@code long} bitmask and iterated in time order. Slots that were never registered keep
+ * ordinal -1.
+ */
+public final class EntityRegistry {
+
+    public static final int MAX_SLOTS = 64; // Slot sets are long bitmasks
+
+    private static final Map<String, Integer> FACULTY = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> SECTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> SUBJECTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger FACULTY_COUNT = new AtomicInteger();
+    private static final AtomicInteger SECTION_COUNT = new AtomicInteger();
+    private static final AtomicInteger SUBJECT_COUNT = new AtomicInteger();
+
+    private EntityRegistry() {
+    }
+
+    public static void registerFaculty(List<Faculty> facultyList) {
+        for (Faculty f : facultyList)
+            f.getOrdinal();
+    }
+
+    public static void registerSections(List<Section> sectionList) {
+        for (Section s : sectionList)
+            s.getOrdinal();
+    }
+
+    public static void registerSubjects(List<Subject> subjectList) {
+        for (Subject s : subjectList)
+            s.getOrdinal();
+    }
+
+    /**
+     * Numbers a complete weekly slot grid in chronological order.
+     */
+    public static void registerSlots(List<Slot> grid) {
+        if (grid.size() > MAX_SLOTS) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_SLOTS + " slots per week are supported, got " + grid.size());
+        }
+        List<Slot> sorted = new ArrayList<>(grid);
+        sorted.sort(Comparator.comparing(Slot::getDay).thenComparing(Slot::getStartTime));
+        for (int i = 0; i < sorted.size(); i++)
+            sorted.get(i).setOrdinal(i);
+    }
+
+    public static int facultyCount() {
+        return FACULTY_COUNT.get();
+    }
+
+    public static int sectionCount() {
+        return SECTION_COUNT.get();
+    }
+
+    public static int subjectCount() {
+        return SUBJECT_COUNT.get();
+    }
+
+    /**
+     * Minutes since midnight, the unit the engines use for slot arithmetic.
+     */
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    static int internFaculty(String id) {
+        return FACULTY.computeIfAbsent(id, k -> FACULTY_COUNT.getAndIncrement());
+    }
+
+    static int internSection(String id) {
+        return SECTIONS.computeIfAbsent(id, k -> SECTION_COUNT.getAndIncrement());
+    }
+
+    static int internSubject(String code) {
+        return SUBJECTS.computeIfAbsent(code, k -> SUBJECT_COUNT.getAndIncrement());
+    }
+}
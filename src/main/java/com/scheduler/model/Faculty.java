@@ -10,6 +10,8 @@ public class Faculty {
     private int totalWorkloadCredits;
     private int researchCredits;
     private List<String> preferredSubjectCodes; // List of Subject Codes they can teach
+    private List<TimeWindow> unavailableWindows; // Periods they cannot teach
+    private int ordinal = -1; // Dense id from EntityRegistry
 
     public Faculty(String id, String name, int totalWorkloadCredits, int researchCredits) {
         this.id = id;
@@ -17,12 +19,19 @@ public class Faculty {
         this.totalWorkloadCredits = totalWorkloadCredits;
         this.researchCredits = researchCredits;
         this.preferredSubjectCodes = new ArrayList<>();
+        this.unavailableWindows = new ArrayList<>();
     }
 
     public String getId() {
         return id;
     }
 
+    public int getOrdinal() {
+        if (ordinal < 0)
+            ordinal = EntityRegistry.internFaculty(id);
+        return ordinal;
+    }
+
     public String getName() {
         return name;
     }
@@ -48,6 +57,22 @@ public class Faculty {
         this.preferredSubjectCodes.add(subjectCode);
     }
 
+    public List<TimeWindow> getUnavailableWindows() {
+        return unavailableWindows;
+    }
+
+    public void addUnavailableWindow(TimeWindow window) {
+        this.unavailableWindows.add(window);
+    }
+
+    public boolean isAvailable(Slot slot) {
+        for (TimeWindow w : unavailableWindows) {
+            if (w.overlaps(slot))
+                return false;
+        }
+        return true;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
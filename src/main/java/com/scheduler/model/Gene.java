@@ -7,7 +7,7 @@ public class Gene {
     private Section section;
     private Subject subject;
     private List<Faculty> faculty; // List because Labs have multiple teachers (1 per batch)
-    private String roomId; // Optional for now
+    private String roomId; // Assigned after time slots are fixed, null if none
 
     public Gene(Slot slot, Section section, Subject subject, List<Faculty> faculty) {
         this.slot = slot;
@@ -40,6 +40,14 @@ public class Gene {
         this.faculty = faculty;
     }
 
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
     @Override
     public String toString() {
         return String.format("%s | %s | %s | %s", slot, section.getName(), subject.getCode(), faculty);
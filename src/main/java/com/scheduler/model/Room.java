@@ -0,0 +1,45 @@
+package com.scheduler.model;
+
+import java.util.Objects;
+
+public class Room {
+    private String id;
+    private int capacity; // Seats
+    private boolean isLab; // Lab rooms host lab sessions only, and vice versa
+
+    public Room(String id, int capacity, boolean isLab) {
+        this.id = id;
+        this.capacity = capacity;
+        this.isLab = isLab;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isLab() {
+        return isLab;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Room room = (Room) o;
+        return Objects.equals(id, room.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + (isLab ? "Lab" : "Theory") + ", " + capacity + ")";
+    }
+}
@@ -0,0 +1,94 @@
+package com.scheduler.model;
+
+/**
+ * Quality of a timetable as (hard, soft) violation counts, compared lexicographically:
+ * any number of soft violations is better than one more hard violation. Lower is better,
+ * and {@link #PERFECT} is the best possible score.
+ *
+ * A score packs into one {@code long} with the hard count in the high half, so packed
+ * scores compare in the same order with a plain {@code <} and can be kept on a
+ * {@link Chromosome} without allocating.
+ */
+public final class Score implements Comparable<Score> {
+    public static final Score PERFECT = new Score(0, 0);
+    public static final long WORST_PACKED = Long.MAX_VALUE; // Not yet evaluated
+
+    private final int hard;
+    private final int soft;
+
+    public Score(int hard, int soft) {
+        if (hard < 0 || soft < 0)
+            throw new IllegalArgumentException("Violation counts cannot be negative: " + hard + "/" + soft);
+        this.hard = hard;
+        this.soft = soft;
+    }
+
+    public static long pack(int hard, int soft) {
+        return ((long) hard << 32) | soft;
+    }
+
+    public static Score unpack(long packed) {
+        return new Score((int) (packed >>> 32), (int) packed);
+    }
+
+    public long pack() {
+        return pack(hard, soft);
+    }
+
+    public int getHard() {
+        return hard;
+    }
+
+    public int getSoft() {
+        return soft;
+    }
+
+    public boolean isFeasible() {
+        return hard == 0;
+    }
+
+    public boolean isBetterThan(Score other) {
+        return compareTo(other) < 0;
+    }
+
+    /**
+     * How far this score is above {@code lowerBound}, per component. A zero gap means the
+     * score is provably optimal.
+     */
+    public Score gap(Score lowerBound) {
+        return new Score(Math.max(0, hard - lowerBound.hard), Math.max(0, soft - lowerBound.soft));
+    }
+
+    /**
+     * The legacy fitness, 1 / (1 + 100 * hard + soft), for callers that still expect a
+     * double in (0, 1].
+     */
+    public double toFitness() {
+        return 1.0 / (1.0 + (hard * 100.0) + soft);
+    }
+
+    @Override
+    public int compareTo(Score other) {
+        return Long.compare(pack(), other.pack());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        Score score = (Score) o;
+        return hard == score.hard && soft == score.soft;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(pack());
+    }
+
+    @Override
+    public String toString() {
+        return hard + " hard / " + soft + " soft";
+    }
+}
@@ -6,17 +6,30 @@ public class Section {
     private String id;
     private String name; // e.g., "A", "B", "CSE-A"
     private int batchCount; // e.g., 4 batches for labs
+    private int strength; // Number of students, 0 if unknown
+    private int ordinal = -1; // Dense id from EntityRegistry
 
     public Section(String id, String name, int batchCount) {
+        this(id, name, batchCount, 0);
+    }
+
+    public Section(String id, String name, int batchCount, int strength) {
         this.id = id;
         this.name = name;
         this.batchCount = batchCount;
+        this.strength = strength;
     }
 
     public String getId() {
         return id;
     }
 
+    public int getOrdinal() {
+        if (ordinal < 0)
+            ordinal = EntityRegistry.internSection(id);
+        return ordinal;
+    }
+
     public String getName() {
         return name;
     }
@@ -25,6 +38,10 @@ public class Section {
         return batchCount;
     }
 
+    public int getStrength() {
+        return strength;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -9,6 +9,7 @@ public class Slot {
     private LocalTime startTime;
     private LocalTime endTime;
     private Type type; // MORNING, MID_MORNING, AFTERNOON
+    private int ordinal = -1; // Chronological position in the registered grid, -1 if none
 
     public enum Type {
         MORNING, MID_MORNING, AFTERNOON
@@ -37,6 +38,14 @@ public class Slot {
         return type;
     }
 
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     public long getDurationMinutes() {
         return java.time.Duration.between(startTime, endTime).toMinutes();
     }
@@ -11,6 +11,7 @@ public class Subject {
                          // User said: "1 Credit = 1 Theory Hour OR 2 Lab Hours."
                          // So a 1 credit Lab = 2 hours.
                          // We should store 'hoursRequired' derived from credits and type.
+    private int ordinal = -1; // Dense id from EntityRegistry
 
     public Subject(String name, String code, boolean isLab, int credits) {
         this.name = name;
@@ -27,6 +28,12 @@ public class Subject {
         return code;
     }
 
+    public int getOrdinal() {
+        if (ordinal < 0)
+            ordinal = EntityRegistry.internSubject(code);
+        return ordinal;
+    }
+
     public boolean isLab() {
         return isLab;
     }
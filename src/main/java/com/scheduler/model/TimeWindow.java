@@ -0,0 +1,65 @@
+package com.scheduler.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * A stretch of one weekday, e.g. a period when a faculty member cannot teach.
+ * Written as {@code DAY} for the whole day or {@code DAY HH:MM-HH:MM}, where DAY is the
+ * day name or its first three letters ({@code SAT}, {@code Monday 08:00-09:50}).
+ */
+public class TimeWindow {
+    private DayOfWeek day;
+    private LocalTime start;
+    private LocalTime end;
+
+    public TimeWindow(DayOfWeek day, LocalTime start, LocalTime end) {
+        this.day = day;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static TimeWindow parse(String text) {
+        String[] parts = text.trim().split("\\s+");
+        DayOfWeek day = parseDay(parts[0]);
+        if (parts.length == 1)
+            return new TimeWindow(day, LocalTime.MIN, LocalTime.MAX);
+
+        String[] range = parts.length == 2 ? parts[1].split("-") : new String[0];
+        if (range.length != 2)
+            throw new IllegalArgumentException("Invalid time window: " + text);
+        return new TimeWindow(day, LocalTime.parse(range[0].trim()), LocalTime.parse(range[1].trim()));
+    }
+
+    private static DayOfWeek parseDay(String text) {
+        String upper = text.toUpperCase();
+        if (upper.length() >= 3) {
+            for (DayOfWeek d : DayOfWeek.values()) {
+                if (d.name().startsWith(upper))
+                    return d;
+            }
+        }
+        throw new IllegalArgumentException("Invalid day: " + text);
+    }
+
+    public DayOfWeek getDay() {
+        return day;
+    }
+
+    public LocalTime getStart() {
+        return start;
+    }
+
+    public LocalTime getEnd() {
+        return end;
+    }
+
+    public boolean overlaps(Slot slot) {
+        return slot.getDay() == day && slot.getStartTime().isBefore(end) && start.isBefore(slot.getEndTime());
+    }
+
+    @Override
+    public String toString() {
+        return day + " " + start + "-" + end;
+    }
+}
@@ -1,9 +1,14 @@
 package com.scheduler.ui;
 
+import com.scheduler.engine.SolverProgress;
 import com.scheduler.engine.TimetableGenerator;
 import com.scheduler.model.*;
-import com.scheduler.util.CsvParser;
-import com.scheduler.util.DataExporter;
+import com.scheduler.util.ExportService;
+import com.scheduler.util.MappedCsvLoader;
+import com.scheduler.util.Snapshot;
+import com.scheduler.util.TimetableGrid;
+import com.scheduler.util.TimetableImporter;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
@@ -15,6 +20,8 @@ import javafx.scene.Scene;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 public class DashboardController {
@@ -30,6 +37,10 @@ public class DashboardController {
     @FXML
     private Button btnExportPdf;
     @FXML
+    private Button btnCancelExport;
+    @FXML
+    private Button btnSaveSnapshot;
+    @FXML
     private Label statusLabel;
     @FXML
     private TabPane mainTabPane;
@@ -45,8 +56,14 @@ public class DashboardController {
     private List<Faculty> facultyList = new ArrayList<>();
     private List<Subject> subjectList = new ArrayList<>();
     private List<Section> sectionList = new ArrayList<>();
+    private List<Room> roomList = new ArrayList<>(); // Optional; rooms are only assigned if loaded
 
     private Chromosome currentTimetable;
+    private Chromosome previousTimetable; // Optional warm start for the next generation
+    private TimetableGrid facultyGrid; // Faculty view of currentTimetable, for showFacultyTimetable
+
+    private final ExportService exportService = new ExportService(Platform::runLater);
+    private Future<?> runningExport; // Null when no export is running
 
     private List<String> sortedSections = new ArrayList<>();
     private String currentSectionName = null;
@@ -71,7 +88,7 @@ public class DashboardController {
         File file = chooseFile("Import Faculty CSV");
         if (file != null) {
             try {
-                facultyList = new CsvParser().loadFaculty(file.getAbsolutePath());
+                facultyList = new MappedCsvLoader().loadFaculty(file.getAbsolutePath());
                 updateStatus("Loaded " + facultyList.size() + " faculty members.");
                 updateWorkloadView();
             } catch (Exception e) {
@@ -85,7 +102,7 @@ public class DashboardController {
         File file = chooseFile("Import Subjects CSV");
         if (file != null) {
             try {
-                subjectList = new CsvParser().loadSubjects(file.getAbsolutePath());
+                subjectList = new MappedCsvLoader().loadSubjects(file.getAbsolutePath());
                 updateStatus("Loaded " + subjectList.size() + " subjects.");
             } catch (Exception e) {
                 showError("Error loading subjects", e);
@@ -98,7 +115,7 @@ public class DashboardController {
         File file = chooseFile("Import Sections CSV");
         if (file != null) {
             try {
-                sectionList = new CsvParser().loadSections(file.getAbsolutePath());
+                sectionList = new MappedCsvLoader().loadSections(file.getAbsolutePath());
                 updateStatus("Loaded " + sectionList.size() + " sections.");
             } catch (Exception e) {
                 showError("Error loading sections", e);
@@ -106,6 +123,41 @@ public class DashboardController {
         }
     }
 
+    @FXML
+    public void importRooms() {
+        File file = chooseFile("Import Rooms CSV");
+        if (file != null) {
+            try {
+                roomList = new MappedCsvLoader().loadRooms(file.getAbsolutePath());
+                updateStatus("Loaded " + roomList.size() + " rooms.");
+            } catch (Exception e) {
+                showError("Error loading rooms", e);
+            }
+        }
+    }
+
+    @FXML
+    public void importPrevious() {
+        if (facultyList.isEmpty() || subjectList.isEmpty() || sectionList.isEmpty()) {
+            showError("Missing Data", new Exception("Please import all CSV files first."));
+            return;
+        }
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Import Previous Timetable");
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"));
+        File file = fc.showOpenDialog(btnGenerate.getScene().getWindow());
+        if (file != null) {
+            try {
+                previousTimetable = new TimetableImporter().importFromExcel(file.getAbsolutePath(), facultyList,
+                        subjectList, sectionList);
+                updateStatus("Loaded " + previousTimetable.getGenes().size()
+                        + " classes from previous timetable. Next generation will start from it.");
+            } catch (Exception e) {
+                showError("Error loading previous timetable", e);
+            }
+        }
+    }
+
     @FXML
     public void generateTimetable() {
         if (facultyList.isEmpty() || subjectList.isEmpty() || sectionList.isEmpty()) {
@@ -115,39 +167,117 @@ public class DashboardController {
 
         updateStatus("Generating timetable... please wait.");
 
+        // The solver only overwrites the latest progress; the UI picks it up once per frame,
+        // so a fast solver never waits on the FX thread
+        AtomicReference<SolverProgress> latestProgress = new AtomicReference<>();
+        AnimationTimer progressTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                SolverProgress progress = latestProgress.getAndSet(null);
+                if (progress != null)
+                    updateStatus("Generating timetable... " + progress);
+            }
+        };
+        progressTimer.start();
+
         new Thread(() -> {
             try {
                 TimetableGenerator generator = new TimetableGenerator();
-                currentTimetable = generator.generateTimetable(facultyList, subjectList, sectionList);
+                generator.setProgressListener(latestProgress::set);
+                currentTimetable = generator.generateTimetable(facultyList, subjectList, sectionList,
+                        previousTimetable);
+                int roomless = roomList.isEmpty() ? 0 : generator.assignRooms(currentTimetable, roomList);
+                Score gap = currentTimetable.getScore().gap(generator.getLowerBound());
 
                 Platform.runLater(() -> {
-                    // Update Sections List
-                    Map<String, List<Gene>> genesBySection = currentTimetable.getGenes().stream()
-                            .collect(Collectors.groupingBy(g -> g.getSection().getName()));
-                    sortedSections = new ArrayList<>(genesBySection.keySet());
-                    Collections.sort(sortedSections);
-                    sectionSelector.getItems().setAll(sortedSections);
-
-                    if (!sortedSections.isEmpty()) {
-                        currentSectionName = sortedSections.get(0);
-                        sectionSelector.setValue(currentSectionName);
-                    }
-
-                    renderTimetable(currentTimetable);
-                    updateWorkloadView(); // Update with actual assigned hours
-                    btnExportExcel.setDisable(false);
-                    btnExportPdf.setDisable(false);
-                    updateButtonStates();
+                    progressTimer.stop();
+                    showTimetable();
 
-                    updateStatus(
-                            "Generation Complete! Fitness: " + String.format("%.4f", currentTimetable.getFitness()));
+                    String roomInfo = roomList.isEmpty() ? ""
+                            : roomless == 0 ? " | All classes have rooms" : " | " + roomless + " classes without a room";
+                    updateStatus("Generation Complete! Score: " + currentTimetable.getScore()
+                            + (gap.equals(Score.PERFECT) ? " (optimal)" : " | Gap to bound: " + gap) + roomInfo);
                 });
             } catch (Exception e) {
-                Platform.runLater(() -> showError("Generation Failed", e));
+                Platform.runLater(() -> {
+                    progressTimer.stop();
+                    showError("Generation Failed", e);
+                });
             }
         }).start();
     }
 
+    private void showTimetable() {
+        facultyGrid = TimetableGrid.build(currentTimetable.getGenes()).get(TimetableGrid.View.FACULTY);
+
+        // Update Sections List
+        sortedSections = currentTimetable.getGenes().stream()
+                .map(g -> g.getSection().getName())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        sectionSelector.getItems().setAll(sortedSections);
+
+        if (!sortedSections.isEmpty()) {
+            currentSectionName = sortedSections.get(0);
+            sectionSelector.setValue(currentSectionName);
+        }
+
+        renderTimetable(currentTimetable);
+        updateWorkloadView(); // Update with actual assigned hours
+        btnExportExcel.setDisable(runningExport != null);
+        btnExportPdf.setDisable(runningExport != null);
+        btnSaveSnapshot.setDisable(false);
+        updateButtonStates();
+    }
+
+    @FXML
+    public void openSnapshot() {
+        FileChooser fc = new FileChooser();
+        fc.setTitle("Open Snapshot");
+        fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Timetable Snapshots", "*.ttsnap"));
+        File file = fc.showOpenDialog(btnGenerate.getScene().getWindow());
+        if (file != null) {
+            try {
+                Snapshot snapshot = Snapshot.read(file.getAbsolutePath());
+                facultyList = snapshot.getFaculty();
+                subjectList = snapshot.getSubjects();
+                sectionList = snapshot.getSections();
+                previousTimetable = snapshot.getSolution(); // Warm start for the next generation
+                if (previousTimetable != null) {
+                    currentTimetable = previousTimetable.deepClone();
+                    if (previousTimetable.getScore() != null)
+                        currentTimetable.setScore(previousTimetable.getScore());
+                    showTimetable();
+                } else {
+                    updateWorkloadView();
+                }
+                updateStatus("Loaded snapshot: " + facultyList.size() + " faculty, " + subjectList.size()
+                        + " subjects, " + sectionList.size() + " sections"
+                        + (previousTimetable == null ? "." : ", timetable " + previousTimetable.getScore()
+                                + ". Next generation will start from it."));
+            } catch (Exception e) {
+                showError("Error opening snapshot", e);
+            }
+        }
+    }
+
+    @FXML
+    public void saveSnapshot() {
+        if (currentTimetable == null)
+            return;
+        File file = saveFile("Save Snapshot", "*.ttsnap");
+        if (file != null) {
+            try {
+                new Snapshot(facultyList, subjectList, sectionList, new TimetableGenerator().createSlots(),
+                        currentTimetable.getGenes(), currentTimetable).write(file.getAbsolutePath());
+                updateStatus("Saved snapshot to " + file.getName());
+            } catch (Exception e) {
+                showError("Error saving snapshot", e);
+            }
+        }
+    }
+
     @FXML
     public void showPreviousSection() {
         if (sortedSections.isEmpty() || currentSectionName == null)
@@ -181,40 +311,77 @@ public class DashboardController {
 
     @FXML
     public void exportExcel() {
-        if (currentTimetable == null)
-            return;
-        File file = saveFile("Export Excel", "*.xlsx");
-        if (file != null) {
-            try {
-                String path = file.getAbsolutePath();
-                if (!path.toLowerCase().endsWith(".xlsx")) {
-                    path += ".xlsx";
-                }
-                new DataExporter().exportToExcel(currentTimetable, path);
-                updateStatus("Exported to Excel successfully.");
-            } catch (Exception e) {
-                showError("Export Failed", e);
-            }
-        }
+        startExport(ExportService.Format.EXCEL, "xlsx");
     }
 
     @FXML
     public void exportPdf() {
-        if (currentTimetable == null)
+        startExport(ExportService.Format.PDF, "pdf");
+    }
+
+    @FXML
+    public void cancelExport() {
+        Future<?> task = runningExport;
+        if (task != null) {
+            task.cancel(true);
+            exportFinished(task, "Export cancelled.");
+        }
+    }
+
+    /** Runs the export on the export service; progress and the outcome go to the status bar. */
+    private void startExport(ExportService.Format format, String ext) {
+        if (currentTimetable == null || runningExport != null)
             return;
-        File file = saveFile("Export PDF", "*.pdf");
-        if (file != null) {
-            try {
-                String path = file.getAbsolutePath();
-                if (!path.toLowerCase().endsWith(".pdf")) {
-                    path += ".pdf";
-                }
-                new DataExporter().exportToPdf(currentTimetable, path);
-                updateStatus("Exported to PDF successfully.");
-            } catch (Exception e) {
-                showError("Export Failed", e);
-            }
+        File file = saveFile("Export " + format.getTitle(), "*." + ext);
+        if (file == null)
+            return;
+        String path = file.getAbsolutePath();
+        if (!path.toLowerCase().endsWith("." + ext)) {
+            path += "." + ext;
         }
+
+        btnExportExcel.setDisable(true);
+        btnExportPdf.setDisable(true);
+        btnCancelExport.setDisable(false);
+        updateStatus("Exporting to " + format.getTitle() + "...");
+        // Callbacks run on this thread after this method returns, so the task is set by then.
+        // They are ignored once the task is no longer the running one, e.g. after a cancel.
+        Future<?>[] task = new Future<?>[1];
+        task[0] = runningExport = exportService.export(currentTimetable, path, format, new ExportService.Listener() {
+            @Override
+            public void progress(int done, int total, String name) {
+                if (runningExport == task[0])
+                    updateStatus("Exporting to " + format.getTitle() + ": " + done + "/" + total + " (" + name + ")");
+            }
+
+            @Override
+            public void succeeded(String filePath) {
+                exportFinished(task[0], "Exported to " + format.getTitle() + " successfully.");
+            }
+
+            @Override
+            public void cancelled() {
+                exportFinished(task[0], "Export cancelled.");
+            }
+
+            @Override
+            public void failed(Exception e) {
+                if (exportFinished(task[0], "Export failed."))
+                    showError("Export Failed", e);
+            }
+        });
+    }
+
+    /** Reports the end of {@code task}; returns false if it was already reported, e.g. cancelled from the button. */
+    private boolean exportFinished(Future<?> task, String status) {
+        if (runningExport != task)
+            return false;
+        runningExport = null;
+        btnCancelExport.setDisable(true);
+        btnExportExcel.setDisable(currentTimetable == null);
+        btnExportPdf.setDisable(currentTimetable == null);
+        updateStatus(status);
+        return true;
     }
 
     private void renderTimetable(Chromosome chromosome) {
@@ -227,10 +394,11 @@ public class DashboardController {
             return;
         }
 
-        Map<String, List<Gene>> genesBySection = chromosome.getGenes().stream()
-                .collect(Collectors.groupingBy(g -> g.getSection().getName()));
+        List<Gene> sectionGenes = chromosome.getGenes().stream()
+                .filter(g -> g.getSection().getName().equals(currentSectionName))
+                .collect(Collectors.toList());
 
-        if (!genesBySection.containsKey(currentSectionName))
+        if (sectionGenes.isEmpty())
             return;
 
         // Slot mapping to column index
@@ -283,11 +451,9 @@ public class DashboardController {
         }
 
         String[] days = { "MON", "TUE", "WED", "THU", "FRI", "SAT" };
-        String[] fullDayNames = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY" };
 
         for (int r = 0; r < days.length; r++) {
             String dayShort = days[r];
-            String dayFull = fullDayNames[r];
 
             // Day Label
             Label d = new Label(dayShort);
@@ -301,8 +467,9 @@ public class DashboardController {
             addBreakCell(grid, 7, r + 1, "LUNCH");
 
             // Fill Slots
-            List<Gene> dayGenes = genesBySection.get(currentSectionName).stream()
-                    .filter(g -> g.getSlot().getDay().toString().equals(dayFull))
+            int dayIndex = r; // Rows are Monday..Saturday, same order as DayOfWeek
+            List<Gene> dayGenes = sectionGenes.stream()
+                    .filter(g -> g.getSlot().getDay().ordinal() == dayIndex)
                     .collect(Collectors.toList());
 
             for (Gene g : dayGenes) {
@@ -320,6 +487,9 @@ public class DashboardController {
                     if (g.getFaculty().size() > 1) {
                         facName += " (+" + (g.getFaculty().size() - 1) + ")";
                     }
+                    if (g.getRoomId() != null) {
+                        facName += " @ " + g.getRoomId();
+                    }
                     Label fac = new Label(facName);
                     fac.getStyleClass().add("text-faculty");
 
@@ -359,9 +529,10 @@ public class DashboardController {
             double usedCredits = 0.0;
         }
 
-        Map<Faculty, FacStats> statsMap = new LinkedHashMap<>(); // Use LinkedHashMap to keep order
+        // Indexed by faculty ordinal; only imported faculty get a slot
+        FacStats[] stats = new FacStats[EntityRegistry.facultyCount()];
         for (Faculty f : facultyList) {
-            statsMap.put(f, new FacStats());
+            stats[f.getOrdinal()] = new FacStats();
         }
 
         if (currentTimetable != null) {
@@ -370,7 +541,8 @@ public class DashboardController {
                 double creditPerSlot = isLab ? 0.5 : 1.0;
 
                 for (Faculty f : g.getFaculty()) {
-                    FacStats s = statsMap.get(f);
+                    int ordinal = f.getOrdinal();
+                    FacStats s = ordinal < stats.length ? stats[ordinal] : null;
                     if (s != null) {
                         if (isLab) {
                             s.labHours++;
@@ -384,7 +556,7 @@ public class DashboardController {
         }
 
         for (Faculty f : facultyList) {
-            FacStats s = statsMap.get(f);
+            FacStats s = stats[f.getOrdinal()];
 
             HBox row = new HBox(10);
             row.setAlignment(Pos.CENTER_LEFT);
@@ -471,25 +643,14 @@ public class DashboardController {
             grid.add(h, c, 0);
         }
 
-        Map<String, Integer> timeToCol = new HashMap<>();
-        timeToCol.put("08:00", 1);
-        timeToCol.put("08:55", 2);
-        // Break is 3
-        timeToCol.put("10:20", 4);
-        timeToCol.put("11:15", 5);
-        timeToCol.put("12:10", 6);
-        // Lunch is 7
-        timeToCol.put("14:00", 8);
-        timeToCol.put("14:55", 9);
-        timeToCol.put("15:50", 10);
-        timeToCol.put("16:45", 11);
+        // Column of each TimetableGrid period; break is 3, lunch is 7
+        int[] periodToCol = { 1, 2, 4, 5, 6, 8, 9, 10, 11 };
+        int facultyRow = facultyGrid.indexOf(fac.getId());
 
         String[] days = { "MON", "TUE", "WED", "THU", "FRI", "SAT" };
-        String[] fullDayNames = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY" };
 
         for (int r = 0; r < days.length; r++) {
             String dayShort = days[r];
-            String dayFull = fullDayNames[r];
 
             Label d = new Label(dayShort);
             d.getStyleClass().add("timetable-day");
@@ -500,15 +661,11 @@ public class DashboardController {
             addBreakCell(grid, 3, r + 1, "BREAK");
             addBreakCell(grid, 7, r + 1, "LUNCH");
 
-            // Filter genes explicitly for this faculty
-            List<Gene> myGenes = currentTimetable.getGenes().stream()
-                    .filter(g -> g.getFaculty().contains(fac))
-                    .filter(g -> g.getSlot().getDay().toString().equals(dayFull))
-                    .collect(Collectors.toList());
-
-            for (Gene g : myGenes) {
-                Integer col = timeToCol.get(g.getSlot().getStartTime().toString());
-                if (col != null) {
+            // This faculty member's classes, looked up in the grid built with the timetable
+            for (int period = 0; period < TimetableGrid.PERIODS && facultyRow >= 0; period++) {
+                Gene g = facultyGrid.get(facultyRow, r, period); // Rows are Monday..Saturday
+                int col = periodToCol[period];
+                if (g != null) {
                     VBox cell = new VBox(2);
                     cell.getStyleClass().add("timetable-cell");
                     cell.getStyleClass().add("cell-theory"); // Just use one color for simplicity or reuse logic
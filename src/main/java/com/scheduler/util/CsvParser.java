@@ -2,9 +2,12 @@ package com.scheduler.util;
 
 import com.opencsv.CSVReader;
 import com.opencsv.exceptions.CsvValidationException;
+import com.scheduler.model.EntityRegistry;
 import com.scheduler.model.Faculty;
+import com.scheduler.model.Room;
 import com.scheduler.model.Section;
 import com.scheduler.model.Subject;
+import com.scheduler.model.TimeWindow;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -20,7 +23,8 @@ public class CsvParser {
             String[] line;
             reader.readNext(); // Skip header
             while ((line = reader.readNext()) != null) {
-                // Format: ID, Name, TotalWorkload, ResearchCredits, PreferredSubjectCodes
+                // Format: ID, Name, TotalWorkload, ResearchCredits, PreferredSubjectCodes[,
+                // Unavailable]
                 if (line.length < 5)
                     continue;
 
@@ -34,9 +38,15 @@ public class CsvParser {
                 for (String s : subjects) {
                     f.addPreferredSubject(s.trim());
                 }
+                if (line.length > 5 && !line[5].isBlank()) {
+                    for (String w : line[5].split(";")) { // e.g. "SAT;MON 08:00-09:50"
+                        f.addUnavailableWindow(TimeWindow.parse(w));
+                    }
+                }
                 facultyList.add(f);
             }
         }
+        EntityRegistry.registerFaculty(facultyList); // Dense ordinals assigned once, at import
         return facultyList;
     }
 
@@ -58,6 +68,7 @@ public class CsvParser {
                 subjects.add(new Subject(name, code, isLab, credits));
             }
         }
+        EntityRegistry.registerSubjects(subjects); // Dense ordinals assigned once, at import
         return subjects;
     }
 
@@ -67,17 +78,39 @@ public class CsvParser {
             String[] line;
             reader.readNext(); // Skip header
             while ((line = reader.readNext()) != null) {
-                // ID, Name, BatchCount
+                // ID, Name, BatchCount, [Strength]
                 if (line.length < 3)
                     continue;
 
                 String id = line[0].trim();
                 String name = line[1].trim();
                 int batches = Integer.parseInt(line[2].trim());
+                int strength = line.length > 3 && !line[3].trim().isEmpty() ? Integer.parseInt(line[3].trim()) : 0;
 
-                sections.add(new Section(id, name, batches));
+                sections.add(new Section(id, name, batches, strength));
             }
         }
+        EntityRegistry.registerSections(sections); // Dense ordinals assigned once, at import
         return sections;
     }
+
+    public List<Room> loadRooms(String filePath) throws IOException, CsvValidationException {
+        List<Room> rooms = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new FileReader(filePath))) {
+            String[] line;
+            reader.readNext(); // Skip header
+            while ((line = reader.readNext()) != null) {
+                // ID, Capacity, Type (Theory/Lab)
+                if (line.length < 3)
+                    continue;
+
+                String id = line[0].trim();
+                int capacity = Integer.parseInt(line[1].trim());
+                boolean isLab = line[2].trim().equalsIgnoreCase("Lab");
+
+                rooms.add(new Room(id, capacity, isLab));
+            }
+        }
+        return rooms;
+    }
 }
@@ -1,235 +1,312 @@
 package com.scheduler.util;
 
 import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.scheduler.model.Chromosome;
 import com.scheduler.model.Gene;
 import com.scheduler.model.Slot;
+import com.scheduler.util.TimetableGrid.View;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Comparator;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DataExporter {
 
+    private static final int ROW_WINDOW = 100; // Rows of one sheet SXSSF keeps in memory; finished sheets are flushed
+    private static final int MAX_COLUMN_CHARS = 40; // Cap for computed column widths
+
+    private static final String[] TIME_HEADERS = {
+            "08:00\n08:55", "08:55\n09:50", "BREAK\n09:50-10:20",
+            "10:20\n11:15", "11:15\n12:10", "12:10\n13:05", "LUNCH\n13:05-14:00",
+            "14:00\n14:55", "14:55\n15:50", "15:50\n16:45", "16:45\n17:40"
+    };
+    private static final String[] DAYS = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY" };
+    // Index into TIME_HEADERS of each TimetableGrid period. Breaks are at 2 and 6.
+    private static final int[] PERIOD_COLUMN = { 0, 1, 3, 4, 5, 7, 8, 9, 10 };
+
+    /** Called on the exporting thread after each sheet or page, with the row it showed. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void exported(int done, int total, String name);
+    }
+
+    private static final ProgressListener NO_PROGRESS = (done, total, name) -> {
+    };
+
+    /** Exports the section, faculty and room views; see {@link #exportToExcel(Chromosome, String, Set)}. */
     public void exportToExcel(Chromosome chromosome, String filePath) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            // Group genes by Section
-            Map<String, List<Gene>> genesBySection = chromosome.getGenes().stream()
-                    .collect(Collectors.groupingBy(g -> g.getSection().getName()));
-
-            // Sort sections
-            List<String> sortedSections = genesBySection.keySet().stream().sorted().collect(Collectors.toList());
-
-            // Define Time Headers with mapping to Column Index
-            String[] timeHeaders = {
-                    "08:00\n08:55", "08:55\n09:50", "BREAK\n09:50-10:20",
-                    "10:20\n11:15", "11:15\n12:10", "12:10\n13:05", "LUNCH\n13:05-14:00",
-                    "14:00\n14:55", "14:55\n15:50", "15:50\n16:45", "16:45\n17:40"
-            };
-
-            // Map StartTime string to Column Index (1-based, 0 is Day)
-            // Note: Breaks are at index 2 and 6 (in 0-based timeHeaders) -> Columns 3 and 7
-            // (1-based in Excel)
-            Map<String, Integer> timeToCol = new java.util.HashMap<>();
-            timeToCol.put("08:00", 1);
-            timeToCol.put("08:55", 2);
-            // Break is 3
-            timeToCol.put("10:20", 4);
-            timeToCol.put("11:15", 5);
-            timeToCol.put("12:10", 6);
-            // Lunch is 7
-            timeToCol.put("14:00", 8);
-            timeToCol.put("14:55", 9);
-            timeToCol.put("15:50", 10);
-            timeToCol.put("16:45", 11);
-
-            for (String sectionName : sortedSections) {
-                Sheet sheet = workbook.createSheet(sectionName);
-
-                // Header Row
-                Row header = sheet.createRow(0);
-                header.createCell(0).setCellValue("Day/Time");
-                for (int i = 0; i < timeHeaders.length; i++) {
-                    header.createCell(i + 1).setCellValue(timeHeaders[i]);
-                }
+        exportToExcel(chromosome, filePath, EnumSet.allOf(View.class));
+    }
 
-                // Style for Header
-                CellStyle headerStyle = workbook.createCellStyle();
-                Font font = workbook.createFont();
-                font.setBold(true);
-                headerStyle.setFont(font);
-                for (int i = 0; i < header.getLastCellNum(); i++) {
-                    header.getCell(i).setCellStyle(headerStyle);
-                }
+    /**
+     * Writes one sheet per row of each requested view (section sheets first, named after
+     * the section, so {@link TimetableImporter} can read the file back) through a
+     * streaming (SXSSF) workbook, so memory stays bounded however many sheets there are.
+     * All views come from one {@link TimetableGrid#build} pass. All cells share two styles,
+     * and column widths are computed from the text instead of measured with autoSizeColumn.
+     */
+    public void exportToExcel(Chromosome chromosome, String filePath, Set<View> views) throws IOException {
+        exportToExcel(chromosome, filePath, views, NO_PROGRESS);
+    }
 
-                String[] days = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY" };
-
-                for (int r = 0; r < days.length; r++) {
-                    Row row = sheet.createRow(r + 1);
-                    String day = days[r];
-                    row.createCell(0).setCellValue(day);
-
-                    // Fill Static Breaks
-                    row.createCell(3).setCellValue("BREAK");
-                    row.createCell(7).setCellValue("LUNCH");
-
-                    // Genes for this day
-                    List<Gene> dayGenes = genesBySection.get(sectionName).stream()
-                            .filter(g -> g.getSlot().getDay().toString().equals(day))
-                            .collect(Collectors.toList());
-
-                    for (Gene g : dayGenes) {
-                        Integer col = timeToCol.get(g.getSlot().getStartTime().toString());
-                        if (col != null) {
-                            String cellValue = g.getSubject().getName() + "\n("
-                                    + g.getFaculty().get(0).getName();
-                            if (g.getFaculty().size() > 1) {
-                                cellValue += " +" + (g.getFaculty().size() - 1);
-                            }
-                            cellValue += ")";
-
-                            Cell cell = row.createCell(col);
-                            cell.setCellValue(cellValue);
-
-                            // Wrap text
-                            CellStyle wrapStyle = workbook.createCellStyle();
-                            wrapStyle.setWrapText(true);
-                            cell.setCellStyle(wrapStyle);
+    /**
+     * As {@link #exportToExcel(Chromosome, String, Set)}, reporting each sheet to
+     * {@code progress}. Interrupting the thread stops the export with an
+     * {@link InterruptedIOException}; the file is then not written.
+     */
+    public void exportToExcel(Chromosome chromosome, String filePath, Set<View> views, ProgressListener progress)
+            throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            Map<View, TimetableGrid> grids = TimetableGrid.build(chromosome.getGenes());
+
+            // Shared style palette: POI caps a workbook at 64000 styles
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            headerStyle.setFont(font);
+            headerStyle.setWrapText(true);
+            CellStyle wrapStyle = workbook.createCellStyle();
+            wrapStyle.setWrapText(true);
+
+            int total = pages(grids, views);
+            int done = 0;
+            Set<String> sheetNames = new HashSet<>();
+            for (View view : views) {
+                TimetableGrid grid = grids.get(view);
+                for (int entity = 0; entity < grid.size(); entity++) {
+                    checkCancelled();
+                    SXSSFSheet sheet = workbook.createSheet(sheetName(view, grid.name(entity), sheetNames));
+                    int[] widths = new int[TIME_HEADERS.length + 1]; // Longest line per column
+
+                    // Header Row (column 0 is Day)
+                    Row header = sheet.createRow(0);
+                    setCell(header, 0, "Day/Time", headerStyle, widths);
+                    for (int i = 0; i < TIME_HEADERS.length; i++) {
+                        setCell(header, i + 1, TIME_HEADERS[i], headerStyle, widths);
+                    }
+
+                    for (int day = 0; day < DAYS.length; day++) {
+                        Row row = sheet.createRow(day + 1);
+                        setCell(row, 0, DAYS[day], null, widths);
+
+                        // Fill Static Breaks
+                        setCell(row, 3, "BREAK", null, widths);
+                        setCell(row, 7, "LUNCH", null, widths);
+
+                        for (int period = 0; period < TimetableGrid.PERIODS; period++) {
+                            Gene g = grid.get(entity, day, period);
+                            if (g != null)
+                                setCell(row, PERIOD_COLUMN[period] + 1, cellText(view, g), wrapStyle, widths);
                         }
                     }
-                }
 
-                // Auto size columns
-                for (int i = 0; i <= timeHeaders.length; i++) {
-                    sheet.autoSizeColumn(i);
+                    for (int i = 0; i < widths.length; i++) {
+                        sheet.setColumnWidth(i, (Math.min(widths[i], MAX_COLUMN_CHARS) + 2) * 256); // 1/256 of a character
+                    }
+                    sheet.flushRows(); // A sheet is far smaller than the window, so it would otherwise stay in memory
+                    progress.exported(++done, total, grid.name(entity));
                 }
             }
+            checkCancelled();
 
             try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
                 workbook.write(fileOut);
             }
+        } finally {
+            workbook.dispose(); // Deletes the temporary files of flushed rows
+            workbook.close();
         }
     }
 
-    public void exportToPdf(Chromosome chromosome, String filePath) {
-        try {
+    /**
+     * Section sheets keep the plain section name; other views get a prefix. Names are
+     * made valid for Excel (31 characters, no special characters) and unique.
+     */
+    private static String sheetName(View view, String name, Set<String> taken) {
+        String base = WorkbookUtil.createSafeSheetName(view == View.SECTION ? name : view.getTitle() + " - " + name);
+        String candidate = base;
+        for (int n = 2; !taken.add(candidate.toLowerCase()); n++) {
+            String suffix = " (" + n + ")";
+            candidate = base.substring(0, Math.min(base.length(), 31 - suffix.length())) + suffix;
+        }
+        return candidate;
+    }
+
+    private static void setCell(Row row, int col, String text, CellStyle style, int[] widths) {
+        Cell cell = row.createCell(col);
+        cell.setCellValue(text);
+        if (style != null)
+            cell.setCellStyle(style);
+        for (String line : text.split("\n"))
+            widths[col] = Math.max(widths[col], line.length());
+    }
+
+    /** Subject plus whoever the view does not already show: faculty for sections, else the section. */
+    private static String cellText(View view, Gene g) {
+        if (view != View.SECTION)
+            return g.getSubject().getName() + "\n(" + g.getSection().getName() + ")";
+        String text = g.getSubject().getName() + "\n(" + g.getFaculty().get(0).getName();
+        if (g.getFaculty().size() > 1) {
+            text += " +" + (g.getFaculty().size() - 1);
+        }
+        return text + ")";
+    }
+
+    /** Exports the section, faculty and room views; see {@link #exportToPdf(Chromosome, String, Set)}. */
+    public void exportToPdf(Chromosome chromosome, String filePath) throws IOException {
+        exportToPdf(chromosome, filePath, EnumSet.allOf(View.class));
+    }
+
+    /**
+     * Writes one page per row of each requested view. All views come from one
+     * {@link TimetableGrid#build} pass; the tables are built on worker threads, at most twice
+     * as many pages ahead of the document as there are threads, and added to it in order.
+     */
+    public void exportToPdf(Chromosome chromosome, String filePath, Set<View> views) throws IOException {
+        exportToPdf(chromosome, filePath, views, NO_PROGRESS);
+    }
+
+    /**
+     * As {@link #exportToPdf(Chromosome, String, Set)}, reporting each page to
+     * {@code progress}. Interrupting the thread stops the export with an
+     * {@link InterruptedIOException}, leaving a partial file.
+     */
+    public void exportToPdf(Chromosome chromosome, String filePath, Set<View> views, ProgressListener progress)
+            throws IOException {
+        Map<View, TimetableGrid> grids = TimetableGrid.build(chromosome.getGenes());
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileOutputStream out = new FileOutputStream(filePath)) {
             // Landscape mode for better width
             Document document = new Document(com.lowagie.text.PageSize.A4.rotate());
-            PdfWriter.getInstance(document, new FileOutputStream(filePath));
+            PdfWriter.getInstance(document, out);
             document.open();
 
             // Font styles
             com.lowagie.text.Font titleFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 16,
                     com.lowagie.text.Font.BOLD);
-            com.lowagie.text.Font headerFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 10,
-                    com.lowagie.text.Font.BOLD);
-            com.lowagie.text.Font cellFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 8,
-                    com.lowagie.text.Font.NORMAL);
-
-            // Highlight Style for Break/Lunch
-            com.lowagie.text.Font breakFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 8,
-                    com.lowagie.text.Font.BOLDITALIC, java.awt.Color.GRAY);
 
-            Map<String, List<Gene>> genesBySection = chromosome.getGenes().stream()
-                    .collect(Collectors.groupingBy(g -> g.getSection().getName()));
-
-            // Sort sections
-            List<String> sortedSections = genesBySection.keySet().stream().sorted().collect(Collectors.toList());
+            List<TimetableGrid> pageGrids = new ArrayList<>();
+            List<Integer> pageRows = new ArrayList<>();
+            List<String> titles = new ArrayList<>();
+            for (View view : views) {
+                TimetableGrid grid = grids.get(view);
+                for (int entity = 0; entity < grid.size(); entity++) {
+                    pageGrids.add(grid);
+                    pageRows.add(entity);
+                    titles.add("Timetable for " + view.getTitle() + ": " + grid.name(entity));
+                }
+            }
 
-            for (String sectionName : sortedSections) {
-                Paragraph title = new Paragraph("Timetable for Section: " + sectionName, titleFont);
+            // Tables are built at most a window ahead of the writer, so only that many are held at once
+            int total = pageGrids.size();
+            int window = 2 * threads;
+            List<Future<PdfPTable>> tables = new ArrayList<>(total);
+            for (int page = 0; page < total; page++) {
+                checkCancelled();
+                for (int ahead = tables.size(); ahead < Math.min(total, page + window); ahead++) {
+                    TimetableGrid grid = pageGrids.get(ahead);
+                    int row = pageRows.get(ahead);
+                    tables.add(pool.submit(() -> table(grid, row)));
+                }
+                Paragraph title = new Paragraph(titles.get(page), titleFont);
                 title.setAlignment(com.lowagie.text.Element.ALIGN_CENTER);
                 document.add(title);
                 document.add(new Paragraph(" ")); // Spacer
+                document.add(tables.get(page).get());
+                tables.set(page, null); // Written; let the table be collected
+                document.newPage();
+                progress.exported(page + 1, total, pageGrids.get(page).name(pageRows.get(page)));
+            }
 
-                // Define Columns including breaks
-                String[] timeHeaders = {
-                        "08:00\n08:55", "08:55\n09:50", "BREAK\n09:50-10:20",
-                        "10:20\n11:15", "11:15\n12:10", "12:10\n13:05", "LUNCH\n13:05-14:00",
-                        "14:00\n14:55", "14:55\n15:50", "15:50\n16:45", "16:45\n17:40"
-                };
-
-                // Map StartTime string to Column Index (0-based)
-                // Note: Breaks are at index 2 and 6
-                Map<String, Integer> timeToIndex = new java.util.HashMap<>();
-                timeToIndex.put("08:00", 0);
-                timeToIndex.put("08:55", 1);
-                // Break is 2
-                timeToIndex.put("10:20", 3);
-                timeToIndex.put("11:15", 4);
-                timeToIndex.put("12:10", 5);
-                // Lunch is 6
-                timeToIndex.put("14:00", 7);
-                timeToIndex.put("14:55", 8);
-                timeToIndex.put("15:50", 9);
-                timeToIndex.put("16:45", 10);
-
-                PdfPTable table = new PdfPTable(timeHeaders.length + 1); // +1 for Day column
-                table.setWidthPercentage(100);
-
-                // Add Headers
-                table.addCell(new com.lowagie.text.Phrase("Day/Time", headerFont));
-                for (String t : timeHeaders) {
-                    table.addCell(new com.lowagie.text.Phrase(t, headerFont));
-                }
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Could not write PDF " + filePath + ": " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not build PDF table: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export cancelled");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-                String[] days = { "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY" };
+    private static int pages(Map<View, TimetableGrid> grids, Set<View> views) {
+        int pages = 0;
+        for (View view : views)
+            pages += grids.get(view).size();
+        return pages;
+    }
 
-                for (String day : days) {
-                    // Day Cell
-                    table.addCell(new com.lowagie.text.Phrase(day, headerFont));
+    private static void checkCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedIOException("Export cancelled");
+    }
 
-                    // Cells for each time slot
-                    for (int i = 0; i < timeHeaders.length; i++) {
-                        // Check if this column is a Break or Lunch
-                        if (i == 2) {
-                            table.addCell(new com.lowagie.text.Phrase("BREAK", breakFont));
-                            continue;
-                        }
-                        if (i == 6) {
-                            table.addCell(new com.lowagie.text.Phrase("LUNCH", breakFont));
-                            continue;
-                        }
+    private static PdfPTable table(TimetableGrid grid, int entity) {
+        com.lowagie.text.Font headerFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 10,
+                com.lowagie.text.Font.BOLD);
+        com.lowagie.text.Font cellFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 8,
+                com.lowagie.text.Font.NORMAL);
 
-                        int currentSlotIdx = i;
-                        // Find gene
-                        Gene gene = genesBySection.get(sectionName).stream()
-                                .filter(g -> g.getSlot().getDay().toString().equals(day))
-                                .filter(g -> {
-                                    Integer idx = timeToIndex.get(g.getSlot().getStartTime().toString());
-                                    return idx != null && idx == currentSlotIdx;
-                                })
-                                .findFirst()
-                                .orElse(null);
-
-                        if (gene != null) {
-                            String cellText = gene.getSubject().getName() + "\n(" + gene.getFaculty().get(0).getName();
-                            if (gene.getFaculty().size() > 1) {
-                                cellText += " +" + (gene.getFaculty().size() - 1);
-                            }
-                            cellText += ")";
-                            table.addCell(new com.lowagie.text.Phrase(cellText, cellFont));
-                        } else {
-                            table.addCell(""); // Empty cell
-                        }
-                    }
+        // Highlight Style for Break/Lunch
+        com.lowagie.text.Font breakFont = new com.lowagie.text.Font(com.lowagie.text.Font.HELVETICA, 8,
+                com.lowagie.text.Font.BOLDITALIC, java.awt.Color.GRAY);
+
+        PdfPTable table = new PdfPTable(TIME_HEADERS.length + 1); // +1 for Day column
+        table.setWidthPercentage(100);
+
+        // Add Headers
+        table.addCell(new com.lowagie.text.Phrase("Day/Time", headerFont));
+        for (String t : TIME_HEADERS) {
+            table.addCell(new com.lowagie.text.Phrase(t, headerFont));
+        }
+
+        for (int day = 0; day < DAYS.length; day++) {
+            // Day Cell
+            table.addCell(new com.lowagie.text.Phrase(DAYS[day], headerFont));
+
+            // Cells for each time slot, breaks included
+            int period = 0;
+            for (int i = 0; i < TIME_HEADERS.length; i++) {
+                // Check if this column is a Break or Lunch
+                if (i == 2) {
+                    table.addCell(new com.lowagie.text.Phrase("BREAK", breakFont));
+                    continue;
+                }
+                if (i == 6) {
+                    table.addCell(new com.lowagie.text.Phrase("LUNCH", breakFont));
+                    continue;
                 }
 
-                document.add(table);
-                document.newPage();
+                Gene gene = grid.get(entity, day, period++);
+                if (gene != null) {
+                    table.addCell(new com.lowagie.text.Phrase(cellText(grid.getView(), gene), cellFont));
+                } else {
+                    table.addCell(""); // Empty cell
+                }
             }
-
-            document.close();
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        return table;
     }
 }
@@ -0,0 +1,120 @@
+package com.scheduler.util;
+
+import com.scheduler.model.Chromosome;
+import com.scheduler.util.TimetableGrid.View;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link DataExporter} exports on one dedicated background thread, so the caller (the
+ * JavaFX thread in the dashboard) never blocks on them. Exports run one at a time in
+ * submission order.
+ *
+ * Listener calls are handed to the {@code callbacks} executor given at construction, e.g.
+ * {@code Platform::runLater}, so they can touch the UI. Progress is coalesced: if the UI
+ * falls behind, only the latest page is reported. Cancelling the returned future
+ * interrupts the export and deletes the partial file.
+ */
+public class ExportService implements AutoCloseable {
+
+    public enum Format {
+        EXCEL("Excel"),
+        PDF("PDF");
+
+        private final String title;
+
+        Format(String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    /** Export events, called through the callbacks executor. */
+    public interface Listener {
+        void progress(int done, int total, String name);
+
+        void succeeded(String filePath);
+
+        void cancelled();
+
+        void failed(Exception e);
+    }
+
+    private final Executor callbacks;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "timetable-export");
+        t.setDaemon(true); // Never keeps the application alive
+        return t;
+    });
+
+    public ExportService(Executor callbacks) {
+        this.callbacks = callbacks;
+    }
+
+    public Future<?> export(Chromosome chromosome, String filePath, Format format, Listener listener) {
+        return worker.submit(() -> {
+            int[] latest = new int[2];
+            String[] latestName = new String[1];
+            AtomicBoolean posted = new AtomicBoolean();
+            DataExporter.ProgressListener progress = (done, total, name) -> {
+                synchronized (latest) {
+                    latest[0] = done;
+                    latest[1] = total;
+                    latestName[0] = name;
+                }
+                if (posted.compareAndSet(false, true)) {
+                    callbacks.execute(() -> {
+                        posted.set(false);
+                        synchronized (latest) {
+                            listener.progress(latest[0], latest[1], latestName[0]);
+                        }
+                    });
+                }
+            };
+
+            try {
+                DataExporter exporter = new DataExporter();
+                if (format == Format.EXCEL)
+                    exporter.exportToExcel(chromosome, filePath, EnumSet.allOf(View.class), progress);
+                else
+                    exporter.exportToPdf(chromosome, filePath, EnumSet.allOf(View.class), progress);
+                callbacks.execute(() -> listener.succeeded(filePath));
+            } catch (InterruptedIOException e) {
+                deleteQuietly(filePath);
+                callbacks.execute(listener::cancelled);
+            } catch (IOException | RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    deleteQuietly(filePath); // Interrupted inside a library call
+                    callbacks.execute(listener::cancelled);
+                } else {
+                    callbacks.execute(() -> listener.failed(e));
+                }
+            }
+        });
+    }
+
+    private static void deleteQuietly(String filePath) {
+        try {
+            Files.deleteIfExists(Paths.get(filePath));
+        } catch (IOException ignored) {
+            // The partial file is harmless; the export is reported as cancelled either way
+        }
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,282 @@
+package com.scheduler.util;
+
+import com.scheduler.model.EntityRegistry;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Room;
+import com.scheduler.model.Section;
+import com.scheduler.model.Subject;
+import com.scheduler.model.TimeWindow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Loader for large CSV exports, with the same file formats as {@link CsvParser}.
+ *
+ * The file is memory-mapped and cut into chunks that end on a line break, and the chunks
+ * are parsed in parallel. Subject codes, which repeat on almost every faculty row, are
+ * interned so equal codes share one String. Unlike {@link CsvParser}, rows that cannot be
+ * read are not skipped: all of them are collected and reported with their line numbers in
+ * a {@link MalformedCsvException}.
+ *
+ * Fields may be quoted ("a, b" and "" for a quote), but a record must fit on one line.
+ */
+public class MappedCsvLoader {
+
+    private static final long MIN_CHUNK = 1 << 20; // Smaller files are parsed in one piece
+    private static final long MAX_CHUNK = Integer.MAX_VALUE; // Largest single mapping
+    private static final int MAX_REPORTED = 20; // Problems listed in the exception message
+
+    private final Map<String, String> codes = new ConcurrentHashMap<>();
+
+    /** Thrown when rows of a file could not be read; lists every bad row. */
+    public static class MalformedCsvException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> problems;
+
+        MalformedCsvException(String file, List<String> problems) {
+            super(file + ": " + problems.size() + " malformed row(s)\n"
+                    + problems.stream().limit(MAX_REPORTED).collect(Collectors.joining("\n"))
+                    + (problems.size() > MAX_REPORTED ? "\n..." : ""));
+            this.problems = problems;
+        }
+
+        public List<String> getProblems() {
+            return problems;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(String[] fields); // Throws IllegalArgumentException or DateTimeException for bad values
+    }
+
+    public List<Faculty> loadFaculty(String filePath) throws IOException {
+        // ID, Name, TotalWorkload, ResearchCredits, PreferredSubjectCodes[, Unavailable]
+        List<Faculty> facultyList = load(filePath, 5, line -> {
+            Faculty f = new Faculty(line[0].trim(), line[1].trim(), number(line[2], "TotalWorkload"),
+                    number(line[3], "ResearchCredits"));
+            for (String code : split(line[4], ';'))
+                f.addPreferredSubject(intern(code));
+            if (line.length > 5) {
+                for (String w : split(line[5], ';'))
+                    f.addUnavailableWindow(TimeWindow.parse(w));
+            }
+            return f;
+        });
+        EntityRegistry.registerFaculty(facultyList); // Dense ordinals assigned once, at import
+        return facultyList;
+    }
+
+    public List<Subject> loadSubjects(String filePath) throws IOException {
+        // Name, Code, Type (Theory/Lab), Credits
+        List<Subject> subjects = load(filePath, 4, line -> new Subject(line[0].trim(), intern(line[1]),
+                line[2].trim().equalsIgnoreCase("Lab"), number(line[3], "Credits")));
+        EntityRegistry.registerSubjects(subjects); // Dense ordinals assigned once, at import
+        return subjects;
+    }
+
+    public List<Section> loadSections(String filePath) throws IOException {
+        // ID, Name, BatchCount, [Strength]
+        List<Section> sections = load(filePath, 3, line -> new Section(line[0].trim(), line[1].trim(),
+                number(line[2], "BatchCount"),
+                line.length > 3 && !line[3].isBlank() ? number(line[3], "Strength") : 0));
+        EntityRegistry.registerSections(sections); // Dense ordinals assigned once, at import
+        return sections;
+    }
+
+    public List<Room> loadRooms(String filePath) throws IOException {
+        // ID, Capacity, Type (Theory/Lab)
+        return load(filePath, 3, line -> new Room(line[0].trim(), number(line[1], "Capacity"),
+                line[2].trim().equalsIgnoreCase("Lab")));
+    }
+
+    private String intern(String code) {
+        String trimmed = code.trim();
+        return codes.computeIfAbsent(trimmed, c -> c);
+    }
+
+    private static int number(String field, String column) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: '" + field.trim() + "'");
+        }
+    }
+
+    /** Non-blank parts of a semicolon-separated list, without a regex. */
+    private static List<String> split(String field, char separator) {
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        for (int i = 0; i <= field.length(); i++) {
+            if (i == field.length() || field.charAt(i) == separator) {
+                String part = field.substring(from, i).trim();
+                if (!part.isEmpty())
+                    parts.add(part);
+                from = i + 1;
+            }
+        }
+        return parts;
+    }
+
+    private <T> List<T> load(String filePath, int minFields, RowMapper<T> mapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int chunks = bounds.length - 1;
+            List<Chunk<T>> parsed = IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> parseChunk(channel, bounds[c], bounds[c + 1], c == 0, minFields, mapper))
+                    .collect(Collectors.toList());
+
+            // Stitch in file order, turning chunk-local line numbers into file line numbers
+            List<T> rows = new ArrayList<>();
+            List<String> problems = new ArrayList<>();
+            int firstLine = 1;
+            for (Chunk<T> chunk : parsed) {
+                if (chunk.failure != null)
+                    throw chunk.failure;
+                rows.addAll(chunk.rows);
+                for (int k = 0; k < chunk.problemLines.size(); k++)
+                    problems.add("line " + (firstLine + chunk.problemLines.get(k)) + ": " + chunk.problems.get(k));
+                firstLine += chunk.lines;
+            }
+            if (!problems.isEmpty())
+                throw new MalformedCsvException(filePath, problems);
+            return rows;
+        }
+    }
+
+    /** Chunk start offsets plus the file size; every start but the first follows a '\n'. */
+    private static long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4L, size / MIN_CHUNK));
+        chunks = (int) Math.max(chunks, (size + MAX_CHUNK / 2 - 1) / (MAX_CHUNK / 2)); // Room to extend to a newline
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int c = 1; c < chunks; c++) {
+            long at = Math.max(bounds.get(bounds.size() - 1), size * c / chunks);
+            long aligned = -1;
+            while (aligned < 0 && at < size) {
+                probe.clear();
+                int read = channel.read(probe, at);
+                for (int i = 0; i < read && aligned < 0; i++) {
+                    if (probe.get(i) == '\n')
+                        aligned = at + i + 1;
+                }
+                at += Math.max(read, 1);
+            }
+            if (aligned < 0 || aligned >= size)
+                break;
+            if (aligned > bounds.get(bounds.size() - 1))
+                bounds.add(aligned);
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static final class Chunk<T> {
+        final List<T> rows = new ArrayList<>();
+        final List<Integer> problemLines = new ArrayList<>(); // Chunk-local, 0-based
+        final List<String> problems = new ArrayList<>();
+        int lines;
+        IOException failure;
+    }
+
+    private static <T> Chunk<T> parseChunk(FileChannel channel, long start, long end, boolean hasHeader,
+            int minFields, RowMapper<T> mapper) {
+        Chunk<T> chunk = new Chunk<>();
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            chunk.failure = e;
+            return chunk;
+        }
+
+        byte[] line = new byte[256];
+        int limit = buffer.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int length = 0;
+            while (pos < limit) {
+                byte b = buffer.get(pos++);
+                if (b == '\n')
+                    break;
+                if (length == line.length)
+                    line = Arrays.copyOf(line, length * 2);
+                line[length++] = b;
+            }
+            if (length > 0 && line[length - 1] == '\r')
+                length--;
+            int lineIndex = chunk.lines++;
+            if ((hasHeader && lineIndex == 0) || isBlank(line, length))
+                continue;
+
+            try {
+                String[] fields = fields(new String(line, 0, length, StandardCharsets.UTF_8));
+                if (fields.length < minFields) {
+                    throw new IllegalArgumentException(
+                            "expected at least " + minFields + " fields, found " + fields.length);
+                }
+                chunk.rows.add(mapper.map(fields));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                chunk.problemLines.add(lineIndex);
+                chunk.problems.add(e.getMessage());
+            }
+        }
+        return chunk;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t')
+                return false;
+        }
+        return true;
+    }
+
+    /** Splits one record on commas, honouring double quotes. */
+    private static String[] fields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char ch = record.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        if (quoted)
+            throw new IllegalArgumentException("unterminated quote");
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,341 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a problem instance and, optionally, a solved timetable, so a session
+ * can be reopened without re-importing the CSV files or solving again.
+ *
+ * Layout (big-endian): a 16-byte header with magic {@code TTSN}, format version, flags
+ * (bit 0: has solution, bit 1: solution has rooms), payload length and the CRC32 of the
+ * payload; then the payload: faculty, subjects, sections, slots, the gene template
+ * (section, subject and faculty team by index into those lists) and, if present, the
+ * solution as one slot index per template gene followed by its packed {@link Score} and,
+ * if flagged, one room id per gene (length -1 for none). Strings are length-prefixed UTF-8.
+ *
+ * Reading maps the file with {@link FileChannel#map}, checks magic, version and checksum,
+ * and registers the entities and slots with {@link EntityRegistry} like the CSV loaders do.
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x5454534E; // "TTSN"
+    private static final short VERSION = 1;
+    private static final short HAS_SOLUTION = 1;
+    private static final short HAS_ROOMS = 2;
+    private static final int HEADER = 16;
+
+    private final List<Faculty> faculty;
+    private final List<Subject> subjects;
+    private final List<Section> sections;
+    private final List<Slot> slots;
+    private final List<Gene> template;
+    private final Chromosome solution;
+
+    /**
+     * {@code solution} may be null. When given, its genes must line up with
+     * {@code template} (same order and classes) and sit in slots of {@code slots}.
+     */
+    public Snapshot(List<Faculty> faculty, List<Subject> subjects, List<Section> sections, List<Slot> slots,
+            List<Gene> template, Chromosome solution) {
+        if (solution != null && solution.getGenes().size() != template.size()) {
+            throw new IllegalArgumentException("Solution has " + solution.getGenes().size()
+                    + " classes but the template has " + template.size());
+        }
+        if (slots.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("A snapshot holds at most " + Short.MAX_VALUE + " slots, got "
+                    + slots.size()); // Solution slots are stored as shorts
+        }
+        this.faculty = faculty;
+        this.subjects = subjects;
+        this.sections = sections;
+        this.slots = slots;
+        this.template = template;
+        this.solution = solution;
+    }
+
+    public List<Faculty> getFaculty() {
+        return faculty;
+    }
+
+    public List<Subject> getSubjects() {
+        return subjects;
+    }
+
+    public List<Section> getSections() {
+        return sections;
+    }
+
+    public List<Slot> getSlots() {
+        return slots;
+    }
+
+    public List<Gene> getTemplate() {
+        return template;
+    }
+
+    /** The solved timetable, or null if the snapshot holds only the problem. */
+    public Chromosome getSolution() {
+        return solution;
+    }
+
+    public void write(String filePath) throws IOException {
+        Writer out = new Writer();
+        Map<Faculty, Integer> facultyIndex = indexOf(faculty);
+        Map<Subject, Integer> subjectIndex = indexOf(subjects);
+        Map<Section, Integer> sectionIndex = indexOf(sections);
+        Map<Slot, Integer> slotIndex = indexOf(slots);
+
+        out.ensure(4);
+        out.buffer.putInt(faculty.size());
+        for (Faculty f : faculty) {
+            out.string(f.getId());
+            out.string(f.getName());
+            out.ensure(12);
+            out.buffer.putInt(f.getTotalWorkloadCredits());
+            out.buffer.putInt(f.getResearchCredits());
+            out.buffer.putInt(f.getPreferredSubjectCodes().size());
+            for (String code : f.getPreferredSubjectCodes())
+                out.string(code);
+            out.ensure(4 + 17 * f.getUnavailableWindows().size());
+            out.buffer.putInt(f.getUnavailableWindows().size());
+            for (TimeWindow w : f.getUnavailableWindows()) {
+                out.buffer.put((byte) w.getDay().ordinal());
+                out.buffer.putLong(w.getStart().toNanoOfDay());
+                out.buffer.putLong(w.getEnd().toNanoOfDay());
+            }
+        }
+
+        out.ensure(4);
+        out.buffer.putInt(subjects.size());
+        for (Subject s : subjects) {
+            out.string(s.getName());
+            out.string(s.getCode());
+            out.ensure(5);
+            out.buffer.put((byte) (s.isLab() ? 1 : 0));
+            out.buffer.putInt(s.getCredits());
+        }
+
+        out.ensure(4);
+        out.buffer.putInt(sections.size());
+        for (Section s : sections) {
+            out.string(s.getId());
+            out.string(s.getName());
+            out.ensure(8);
+            out.buffer.putInt(s.getBatchCount());
+            out.buffer.putInt(s.getStrength());
+        }
+
+        out.ensure(4 + 10 * slots.size());
+        out.buffer.putInt(slots.size());
+        for (Slot s : slots) {
+            out.buffer.put((byte) s.getDay().ordinal());
+            out.buffer.putInt(s.getStartTime().toSecondOfDay());
+            out.buffer.putInt(s.getEndTime().toSecondOfDay());
+            out.buffer.put((byte) s.getType().ordinal());
+        }
+
+        out.ensure(4);
+        out.buffer.putInt(template.size());
+        for (Gene g : template) {
+            out.ensure(12 + 4 * g.getFaculty().size());
+            out.buffer.putInt(index(sectionIndex, g.getSection(), "section"));
+            out.buffer.putInt(index(subjectIndex, g.getSubject(), "subject"));
+            out.buffer.putInt(g.getFaculty().size());
+            for (Faculty f : g.getFaculty())
+                out.buffer.putInt(index(facultyIndex, f, "faculty member"));
+        }
+
+        if (solution != null) {
+            out.ensure(2 * template.size() + 8);
+            for (Gene g : solution.getGenes())
+                out.buffer.putShort((short) index(slotIndex, g.getSlot(), "slot"));
+            out.buffer.putLong(solution.getPackedScore());
+        }
+        boolean hasRooms = solution != null && solution.getGenes().stream().anyMatch(g -> g.getRoomId() != null);
+        if (hasRooms) {
+            for (Gene g : solution.getGenes()) {
+                if (g.getRoomId() == null) {
+                    out.ensure(4);
+                    out.buffer.putInt(-1);
+                } else {
+                    out.string(g.getRoomId());
+                }
+            }
+        }
+
+        ByteBuffer payload = out.buffer.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) ((solution != null ? HAS_SOLUTION : 0) | (hasRooms ? HAS_ROOMS : 0)))
+                .putInt(payload.remaining()).putInt((int) crc.getValue()).flip();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] parts = { header, payload };
+            while (payload.hasRemaining())
+                channel.write(parts);
+        }
+    }
+
+    public static Snapshot read(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER)
+                throw new IOException(filePath + " is not a timetable snapshot");
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Stays valid after close
+        }
+        if (in.getInt() != MAGIC)
+            throw new IOException(filePath + " is not a timetable snapshot");
+        short version = in.getShort();
+        if (version != VERSION)
+            throw new IOException("Unsupported snapshot version " + version + " (expected " + VERSION + ")");
+        short flags = in.getShort();
+        int length = in.getInt();
+        int checksum = in.getInt();
+        if (length != in.remaining())
+            throw new IOException("Snapshot " + filePath + " is truncated");
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate());
+        if ((int) crc.getValue() != checksum)
+            throw new IOException("Snapshot " + filePath + " is corrupt (checksum mismatch)");
+
+        try {
+            return decode(in, (flags & HAS_SOLUTION) != 0, (flags & HAS_ROOMS) != 0);
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot " + filePath + " is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    private static Snapshot decode(ByteBuffer in, boolean hasSolution, boolean hasRooms) {
+        List<Faculty> faculty = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) {
+            Faculty f = new Faculty(string(in), string(in), in.getInt(), in.getInt());
+            for (int k = in.getInt(); k > 0; k--)
+                f.addPreferredSubject(string(in));
+            for (int k = in.getInt(); k > 0; k--) {
+                DayOfWeek day = DayOfWeek.values()[in.get()];
+                f.addUnavailableWindow(new TimeWindow(day, LocalTime.ofNanoOfDay(in.getLong()),
+                        LocalTime.ofNanoOfDay(in.getLong())));
+            }
+            faculty.add(f);
+        }
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) {
+            String name = string(in);
+            String code = string(in);
+            subjects.add(new Subject(name, code, in.get() != 0, in.getInt()));
+        }
+
+        List<Section> sections = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) {
+            String id = string(in);
+            String name = string(in);
+            sections.add(new Section(id, name, in.getInt(), in.getInt()));
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) {
+            DayOfWeek day = DayOfWeek.values()[in.get()];
+            LocalTime start = LocalTime.ofSecondOfDay(in.getInt());
+            LocalTime end = LocalTime.ofSecondOfDay(in.getInt());
+            slots.add(new Slot(day, start, end, Slot.Type.values()[in.get()]));
+        }
+
+        List<Gene> template = new ArrayList<>();
+        for (int n = in.getInt(); n > 0; n--) {
+            Section section = sections.get(in.getInt());
+            Subject subject = subjects.get(in.getInt());
+            List<Faculty> team = new ArrayList<>();
+            for (int k = in.getInt(); k > 0; k--)
+                team.add(faculty.get(in.getInt()));
+            template.add(new Gene(null, section, subject, team));
+        }
+
+        Chromosome solution = null;
+        if (hasSolution) {
+            List<Gene> genes = new ArrayList<>(template.size());
+            for (Gene g : template)
+                genes.add(new Gene(slots.get(in.getShort()), g.getSection(), g.getSubject(), g.getFaculty()));
+            solution = new Chromosome(genes);
+            long packed = in.getLong();
+            if (packed != Score.WORST_PACKED)
+                solution.setScore(Score.unpack(packed));
+            if (hasRooms) {
+                for (Gene g : genes)
+                    g.setRoomId(optionalString(in));
+            }
+        }
+
+        // Dense ordinals, as after a CSV import
+        EntityRegistry.registerFaculty(faculty);
+        EntityRegistry.registerSubjects(subjects);
+        EntityRegistry.registerSections(sections);
+        EntityRegistry.registerSlots(slots);
+        return new Snapshot(faculty, subjects, sections, slots, template, solution);
+    }
+
+    private static String string(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String optionalString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T> Map<T, Integer> indexOf(List<T> items) {
+        Map<T, Integer> index = new HashMap<>();
+        for (T item : items)
+            index.putIfAbsent(item, index.size());
+        return index;
+    }
+
+    private static <T> int index(Map<T, Integer> index, T item, String kind) {
+        Integer i = index.get(item);
+        if (i == null)
+            throw new IllegalArgumentException("Snapshot does not list " + kind + " " + item);
+        return i;
+    }
+
+    /** Growable payload buffer. */
+    private static final class Writer {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+        }
+
+        void string(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+}
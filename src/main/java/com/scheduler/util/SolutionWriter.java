@@ -0,0 +1,163 @@
+package com.scheduler.util;
+
+import com.scheduler.model.Chromosome;
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Gene;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Machine-readable timetable export for downstream systems (LMS, room booking): one record
+ * per gene with section id, subject code, faculty ids, day, start, end and room.
+ *
+ * Records are formatted into one reused character buffer and encoded straight into a
+ * fixed-size byte buffer that is drained to the stream through an NIO channel, so memory
+ * use does not grow with the timetable. The stream is flushed but not closed, so output
+ * can go to stdout or a pipe.
+ */
+public class SolutionWriter {
+
+    public enum Format {
+        JSONL, // {"section":"SEC1","subject":"DSA","faculty":["F001"],"day":"MONDAY",...}
+        CSV // Header row, faculty ids joined with ';', empty room if none
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "Section,Subject,Faculty,Day,Start,End,Room\n";
+
+    public void write(Chromosome chromosome, OutputStream out, Format format) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(out);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        StringBuilder record = new StringBuilder(256);
+
+        if (format == Format.CSV) {
+            record.append(CSV_HEADER);
+            encode(record, encoder, bytes, channel);
+        }
+        for (Gene g : chromosome.getGenes()) {
+            record.setLength(0);
+            if (format == Format.JSONL)
+                jsonRecord(g, record);
+            else
+                csvRecord(g, record);
+            encode(record, encoder, bytes, channel);
+        }
+
+        bytes.flip();
+        while (bytes.hasRemaining())
+            channel.write(bytes);
+        out.flush();
+    }
+
+    private static void jsonRecord(Gene g, StringBuilder sb) {
+        sb.append("{\"section\":");
+        jsonString(g.getSection().getId(), sb);
+        sb.append(",\"subject\":");
+        jsonString(g.getSubject().getCode(), sb);
+        sb.append(",\"faculty\":[");
+        List<Faculty> team = g.getFaculty();
+        for (int k = 0; k < team.size(); k++) {
+            if (k > 0)
+                sb.append(',');
+            jsonString(team.get(k).getId(), sb);
+        }
+        sb.append("],\"day\":\"").append(g.getSlot().getDay())
+                .append("\",\"start\":\"").append(g.getSlot().getStartTime())
+                .append("\",\"end\":\"").append(g.getSlot().getEndTime())
+                .append("\",\"room\":");
+        if (g.getRoomId() == null)
+            sb.append("null");
+        else
+            jsonString(g.getRoomId(), sb);
+        sb.append("}\n");
+    }
+
+    private static void jsonString(String s, StringBuilder sb) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void csvRecord(Gene g, StringBuilder sb) {
+        csvField(g.getSection().getId(), sb);
+        sb.append(',');
+        csvField(g.getSubject().getCode(), sb);
+        sb.append(',');
+        int teamStart = sb.length();
+        List<Faculty> team = g.getFaculty();
+        for (int k = 0; k < team.size(); k++) {
+            if (k > 0)
+                sb.append(';');
+            sb.append(team.get(k).getId());
+        }
+        quoteIfNeeded(sb, teamStart);
+        sb.append(',').append(g.getSlot().getDay())
+                .append(',').append(g.getSlot().getStartTime())
+                .append(',').append(g.getSlot().getEndTime())
+                .append(',');
+        if (g.getRoomId() != null)
+            csvField(g.getRoomId(), sb);
+        sb.append('\n');
+    }
+
+    private static void csvField(String s, StringBuilder sb) {
+        int from = sb.length();
+        sb.append(s);
+        quoteIfNeeded(sb, from);
+    }
+
+    /** Quotes the field that starts at {@code from} and runs to the end of {@code sb}, if it needs it. */
+    private static void quoteIfNeeded(StringBuilder sb, int from) {
+        boolean needed = false;
+        for (int i = from; i < sb.length() && !needed; i++) {
+            char c = sb.charAt(i);
+            needed = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needed)
+            return;
+        for (int i = sb.length() - 1; i >= from; i--) {
+            if (sb.charAt(i) == '"')
+                sb.insert(i, '"');
+        }
+        sb.insert(from, '"').append('"');
+    }
+
+    /** Encodes {@code chars} into {@code bytes}, draining to the channel whenever it fills up. */
+    private static void encode(CharSequence chars, CharsetEncoder encoder, ByteBuffer bytes,
+            WritableByteChannel channel) throws IOException {
+        CharBuffer in = CharBuffer.wrap(chars);
+        while (true) {
+            CoderResult result = encoder.encode(in, bytes, true);
+            if (result.isUnderflow())
+                break;
+            if (result.isOverflow()) {
+                bytes.flip();
+                while (bytes.hasRemaining())
+                    channel.write(bytes);
+                bytes.clear();
+            } else {
+                result.throwException();
+            }
+        }
+        encoder.reset();
+    }
+}
@@ -0,0 +1,146 @@
+package com.scheduler.util;
+
+import com.scheduler.model.Faculty;
+import com.scheduler.model.Gene;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timetable view indexed as {@code [row][day][period]}, so exporters look cells up instead
+ * of filtering the gene list for every cell. A row is one section, faculty member or room,
+ * depending on the {@link View}; rows are in name order. {@link #build} fills all views
+ * in a single pass over the genes.
+ *
+ * Days are Monday..Saturday and periods are the nine teaching slots of the standard grid
+ * (breaks are not periods). Genes outside that grid are left out. If two genes share a
+ * cell, the first one in gene order is kept.
+ */
+public class TimetableGrid {
+
+    public enum View {
+        SECTION("Section"),
+        FACULTY("Faculty"),
+        ROOM("Room"); // Only genes with an assigned room
+
+        private final String title;
+
+        View(String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    public static final int DAYS = 6;
+    static final LocalTime[] PERIOD_STARTS = { LocalTime.of(8, 0), LocalTime.of(8, 55), LocalTime.of(10, 20),
+            LocalTime.of(11, 15), LocalTime.of(12, 10), LocalTime.of(14, 0), LocalTime.of(14, 55),
+            LocalTime.of(15, 50), LocalTime.of(16, 45) };
+    public static final int PERIODS = PERIOD_STARTS.length;
+
+    private final View view;
+    private final List<String> keys; // Entity ids
+    private final List<String> names;
+    private final Gene[][][] cells;
+
+    private TimetableGrid(View view, List<String> keys, List<String> names, Gene[][][] cells) {
+        this.view = view;
+        this.keys = keys;
+        this.names = names;
+        this.cells = cells;
+    }
+
+    /** All three views in one pass over {@code genes}. */
+    public static Map<View, TimetableGrid> build(List<Gene> genes) {
+        Map<View, Builder> builders = new EnumMap<>(View.class);
+        for (View v : View.values())
+            builders.put(v, new Builder());
+
+        for (Gene g : genes) {
+            int day = g.getSlot().getDay().ordinal();
+            int period = period(g.getSlot().getStartTime());
+            builders.get(View.SECTION).add(g.getSection().getId(), g.getSection().getName(), g, day, period);
+            for (Faculty f : g.getFaculty())
+                builders.get(View.FACULTY).add(f.getId(), f.getName(), g, day, period);
+            if (g.getRoomId() != null)
+                builders.get(View.ROOM).add(g.getRoomId(), g.getRoomId(), g, day, period);
+        }
+
+        Map<View, TimetableGrid> grids = new EnumMap<>(View.class);
+        builders.forEach((v, b) -> grids.put(v, b.finish(v)));
+        return grids;
+    }
+
+    /** Period of a slot start time, or -1 if it is not on the standard grid. */
+    static int period(LocalTime start) {
+        for (int p = 0; p < PERIODS; p++) {
+            if (PERIOD_STARTS[p].equals(start))
+                return p;
+        }
+        return -1;
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    /** Row of the entity with this id (section id, faculty id or room id), or -1. */
+    public int indexOf(String key) {
+        return keys.indexOf(key);
+    }
+
+    /** The gene in a cell, or null if it is free. */
+    public Gene get(int row, int day, int period) {
+        return cells[row][day][period];
+    }
+
+    private static final class Builder {
+        private final Map<String, Row> rows = new LinkedHashMap<>();
+
+        private static final class Row {
+            final String key;
+            final String name;
+            final Gene[][] cells = new Gene[DAYS][PERIODS];
+
+            Row(String key, String name) {
+                this.key = key;
+                this.name = name;
+            }
+        }
+
+        void add(String key, String name, Gene g, int day, int period) {
+            Row row = rows.computeIfAbsent(key, k -> new Row(k, name));
+            if (day < DAYS && period >= 0 && row.cells[day][period] == null)
+                row.cells[day][period] = g;
+        }
+
+        TimetableGrid finish(View view) {
+            List<Row> sorted = new ArrayList<>(rows.values());
+            sorted.sort(Comparator.comparing((Row r) -> r.name).thenComparing(r -> r.key));
+            List<String> keys = new ArrayList<>(sorted.size());
+            List<String> names = new ArrayList<>(sorted.size());
+            Gene[][][] cells = new Gene[sorted.size()][][];
+            for (int i = 0; i < sorted.size(); i++) {
+                keys.add(sorted.get(i).key);
+                names.add(sorted.get(i).name);
+                cells[i] = sorted.get(i).cells;
+            }
+            return new TimetableGrid(view, keys, names, cells);
+        }
+    }
+}
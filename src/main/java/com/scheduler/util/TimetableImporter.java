@@ -0,0 +1,92 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+import org.apache.poi.ss.usermodel.*;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Reads a timetable back from a workbook written by {@link DataExporter#exportToExcel}, so a
+ * previous semester can be used to warm-start generation.
+ *
+ * Cells only carry the subject name and the first faculty member, so lab teams come back
+ * partially; the warm start matches those by section and subject instead.
+ */
+public class TimetableImporter {
+
+    // Column (1-based, 0 is Day) -> period, mirroring the exporter layout. Columns 3 and 7 are breaks.
+    private static final int[] COLUMNS = { 1, 2, 4, 5, 6, 8, 9, 10, 11 };
+    private static final LocalTime[] STARTS = { LocalTime.of(8, 0), LocalTime.of(8, 55), LocalTime.of(10, 20),
+            LocalTime.of(11, 15), LocalTime.of(12, 10), LocalTime.of(14, 0), LocalTime.of(14, 55),
+            LocalTime.of(15, 50), LocalTime.of(16, 45) };
+
+    public Chromosome importFromExcel(String filePath, List<Faculty> facultyList, List<Subject> subjectList,
+            List<Section> sectionList) throws IOException {
+        Map<String, Section> sections = new HashMap<>();
+        for (Section s : sectionList)
+            sections.put(s.getName(), s);
+        Map<String, Subject> subjects = new HashMap<>();
+        for (Subject s : subjectList)
+            subjects.put(s.getName(), s);
+        Map<String, Faculty> faculty = new HashMap<>();
+        for (Faculty f : facultyList)
+            faculty.put(f.getName(), f);
+
+        List<Gene> genes = new ArrayList<>();
+        try (FileInputStream in = new FileInputStream(filePath); Workbook workbook = WorkbookFactory.create(in)) {
+            for (Sheet sheet : workbook) {
+                Section section = sections.get(sheet.getSheetName());
+                if (section == null)
+                    continue; // Section no longer exists
+
+                for (int r = 1; r <= 6; r++) {
+                    Row row = sheet.getRow(r);
+                    if (row == null)
+                        continue;
+                    DayOfWeek day = DayOfWeek.of(r); // Rows are Monday..Saturday
+                    for (int p = 0; p < COLUMNS.length; p++) {
+                        Cell cell = row.getCell(COLUMNS[p]);
+                        if (cell == null || cell.getCellType() != CellType.STRING)
+                            continue;
+                        Gene gene = parseCell(cell.getStringCellValue(), section, day, p, subjects, faculty);
+                        if (gene != null)
+                            genes.add(gene);
+                    }
+                }
+            }
+        }
+        return new Chromosome(genes);
+    }
+
+    private Gene parseCell(String text, Section section, DayOfWeek day, int period, Map<String, Subject> subjects,
+            Map<String, Faculty> faculty) {
+        // Format: "Subject Name\n(Faculty Name +N)"
+        int nl = text.indexOf('\n');
+        if (nl < 0)
+            return null;
+        Subject subject = subjects.get(text.substring(0, nl).trim());
+        if (subject == null)
+            return null;
+
+        String teacher = text.substring(nl + 1).trim();
+        if (teacher.startsWith("("))
+            teacher = teacher.substring(1);
+        if (teacher.endsWith(")"))
+            teacher = teacher.substring(0, teacher.length() - 1);
+        int plus = teacher.lastIndexOf(" +");
+        if (plus >= 0)
+            teacher = teacher.substring(0, plus);
+        Faculty f = faculty.get(teacher.trim());
+        List<Faculty> team = f == null ? Collections.emptyList() : Collections.singletonList(f);
+
+        LocalTime start = STARTS[period];
+        Slot.Type type = start.getHour() < 10 ? Slot.Type.MORNING
+                : start.getHour() < 14 ? Slot.Type.MID_MORNING : Slot.Type.AFTERNOON;
+        Slot slot = new Slot(day, start, start.plusMinutes(55), type);
+        return new Gene(slot, section, subject, team);
+    }
+}
@@ -0,0 +1,81 @@
+package com.scheduler.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchCliTest {
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private PrintStream originalErr;
+
+    @BeforeEach
+    public void captureErr() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(err, true));
+    }
+
+    @AfterEach
+    public void restoreErr() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    public void testBadArgumentsExitWithUsage() {
+        assertEquals(BatchCli.USAGE, BatchCli.run(new String[] { "faculty.csv", "subjects.csv" }));
+        assertEquals(BatchCli.USAGE, BatchCli.run(new String[] { "a", "b", "c", "--seed", "soon" }));
+        assertEquals(BatchCli.USAGE, BatchCli.run(new String[] { "a", "b", "c", "--format", "docx" }));
+        assertEquals(BatchCli.USAGE, BatchCli.run(new String[] { "a", "b", "c", "--threads" }));
+        assertTrue(stderr().contains("Usage: BatchCli"));
+    }
+
+    @Test
+    public void testInfeasibleInputExitsBeforeSolving(@TempDir Path dir) throws IOException {
+        // Nobody can teach Physics
+        String[] files = write(dir, "BF1,Alice,16,0,BM1", "Mathematics,BM1,Theory,3\nPhysics,BP1,Theory,3");
+
+        assertEquals(BatchCli.INFEASIBLE, BatchCli.run(files));
+
+        String out = stderr();
+        assertTrue(out.contains("No faculty found for Physics"), out);
+        assertEquals(out.indexOf("No faculty found"), out.lastIndexOf("No faculty found"),
+                "Diagnostics come from a single check");
+    }
+
+    @Test
+    public void testSolvesAndExports(@TempDir Path dir) throws IOException {
+        String[] files = write(dir, "BF1,Alice,16,0,BM1", "Mathematics,BM1,Theory,3");
+        String[] args = Arrays.copyOf(files, files.length + 8);
+        System.arraycopy(new String[] { "--seed", "1", "--time-limit", "5", "--format", "jsonl",
+                "--out", dir.toString() }, 0, args, files.length, 8);
+
+        assertEquals(BatchCli.OK, BatchCli.run(args), stderr());
+        assertEquals(3, Files.readAllLines(dir.resolve("timetable.jsonl")).size());
+    }
+
+    private static String[] write(Path dir, String faculty, String subjects) throws IOException {
+        Path f = dir.resolve("faculty.csv");
+        Path s = dir.resolve("subjects.csv");
+        Path sec = dir.resolve("sections.csv");
+        Files.write(f, ("ID,Name,TotalWorkload,ResearchCredits,PreferredSubjectCodes\n" + faculty + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(s, ("Name,Code,Type,Credits\n" + subjects + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.write(sec, "ID,Name,BatchCount,Strength\nBS1,Section A,1,40\n".getBytes(StandardCharsets.UTF_8));
+        return new String[] { f.toString(), s.toString(), sec.toString() };
+    }
+
+    private String stderr() {
+        return new String(err.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
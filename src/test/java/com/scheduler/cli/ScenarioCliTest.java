@@ -0,0 +1,33 @@
+package com.scheduler.cli;
+
+import com.scheduler.engine.Scenario;
+import com.scheduler.model.Faculty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioCliTest {
+
+    @Test
+    public void testHireOpsInOneScenarioGetDistinctIds(@TempDir Path dir) throws Exception {
+        Faculty existing = new Faculty("NEW-grow-2", "Taken", 16, 0); // Collides with the second hire
+        existing.addPreferredSubject("M1");
+        Path file = dir.resolve("scenarios.txt");
+        Files.write(file, Collections.singletonList("grow | hire 2 M1 | hire 1 P1"));
+
+        List<Scenario> scenarios = ScenarioCli.loadScenarios(file.toString(), Collections.singletonList(existing));
+
+        List<String> ids = scenarios.get(0).getAddedFaculty().stream().map(Faculty::getId)
+                .collect(Collectors.toList());
+        assertEquals(3, ids.size());
+        assertEquals(3, ids.stream().distinct().count());
+        assertFalse(ids.contains("NEW-grow-2"));
+    }
+}
@@ -0,0 +1,204 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CanonicalOrderTest {
+
+    private static final int[] MATH_A = { 0, 1, 2, 3 };
+    private static final int[] MATH_B = { 9, 10 };
+    private static final int PINNED = 7;
+
+    private final Faculty alice = new Faculty("CF1", "Alice", 16, 0);
+    private final Faculty bob = new Faculty("CF2", "Bob", 16, 0);
+    private final Subject math = new Subject("Math", "CM1", false, 4);
+    private final Subject lab = new Subject("Lab", "CL1", true, 1);
+    private final Subject physics = new Subject("Physics", "CP1", false, 3);
+    private final Section secA = new Section("CS1", "A", 0);
+    private final Section secB = new Section("CS2", "B", 0);
+
+    private final List<Slot> slots = slots();
+    private final List<Gene> template = template();
+    private final List<GeneGroup> groups = GeneGroup.build(template, slots);
+    private final CanonicalOrder order = CanonicalOrder.build(template, groups, movable());
+
+    @Test
+    public void testApplySortsEachRunByDayThenStart() {
+        List<Gene> genes = copy(template);
+        // Monday afternoon before Tuesday morning, whatever the start times say
+        setSlots(genes, MATH_A, slots.get(9), slots.get(6), slots.get(16), slots.get(0));
+        setSlots(genes, MATH_B, slots.get(20), slots.get(3));
+        setSlots(genes, new int[] { 6, 7, 8 }, slots.get(12), slots.get(5), slots.get(1));
+
+        order.apply(genes);
+
+        assertEquals(Arrays.asList(slots.get(0), slots.get(6), slots.get(9), slots.get(16)), slotsOf(genes, MATH_A));
+        assertEquals(Arrays.asList(slots.get(3), slots.get(20)), slotsOf(genes, MATH_B));
+        assertEquals(Arrays.asList(slots.get(12), slots.get(5), slots.get(1)), slotsOf(genes, new int[] { 6, 7, 8 }),
+                "Physics around a pinned hour is not a run and keeps its order");
+    }
+
+    @Test
+    public void testPinnedAndLabGroupsAreNeverInRuns() {
+        for (GeneGroup group : groups) {
+            int first = group.gene(0);
+            boolean inRun = contains(MATH_A, first) || contains(MATH_B, first);
+            assertEquals(inRun, order.moveOwner(group) < 0, "Gene " + first);
+            if (!inRun)
+                assertEquals(first, order.moveOwner(group), "Outside a run a group owns its own move");
+        }
+
+        // Nothing outside the runs changes, however far it is out of order
+        List<Gene> genes = copy(template);
+        setSlots(genes, new int[] { 4, 5, 6, 7, 8 }, slots.get(20), slots.get(21), slots.get(12), slots.get(5),
+                slots.get(1));
+        List<Slot> before = slotsOf(genes, new int[] { 4, 5, 6, 7, 8 });
+        order.apply(genes);
+        assertEquals(before, slotsOf(genes, new int[] { 4, 5, 6, 7, 8 }));
+    }
+
+    @Test
+    public void testMoveOwnerIsSharedWithinARun() {
+        Set<Long> owners = new HashSet<>();
+        for (int[] run : new int[][] { MATH_A, MATH_B }) {
+            long owner = order.moveOwner(groupOf(run[0]));
+            for (int index : run)
+                assertEquals(owner, order.moveOwner(groupOf(index)), "Gene " + index);
+            assertTrue(owners.add(owner), "Each run has its own id");
+        }
+        for (GeneGroup group : groups)
+            owners.add(order.moveOwner(group));
+        assertEquals(groups.size() - MATH_A.length - MATH_B.length + 2, owners.size());
+    }
+
+    @Test
+    public void testCrossoverKeepsSharedSlotsAndAddsNoRepeats() {
+        Random rand = new Random(17);
+        List<Slot> pool = slots.subList(0, 8); // Small, so parents often share slots
+        for (int trial = 0; trial < 500; trial++) {
+            boolean clashing = trial % 2 == 1; // Every other trial lets a parent repeat a slot
+            List<Gene> parent1 = copy(template);
+            List<Gene> parent2 = copy(template);
+            for (List<Gene> parent : Arrays.asList(parent1, parent2)) {
+                for (int index : MATH_A)
+                    parent.get(index).setSlot(pool.get(rand.nextInt(pool.size())));
+                if (!clashing)
+                    distinct(parent, MATH_A, pool, rand);
+            }
+            List<Gene> child = copy(parent1);
+
+            order.crossover(parent1, parent2, child, new Random(trial));
+
+            List<Slot> p1 = slotsOf(parent1, MATH_A);
+            List<Slot> p2 = slotsOf(parent2, MATH_A);
+            List<Slot> c = slotsOf(child, MATH_A);
+            for (Slot slot : new HashSet<>(c)) {
+                int n1 = Collections.frequency(p1, slot);
+                int n2 = Collections.frequency(p2, slot);
+                int n = Collections.frequency(c, slot);
+                assertTrue(n1 + n2 > 0, "Child slot from neither parent: " + slot);
+                assertTrue(n <= Math.max(n1, n2), n + " hours in " + slot + " but parents had " + n1 + " and " + n2);
+            }
+            for (Slot slot : new HashSet<>(p1)) {
+                int shared = Math.min(Collections.frequency(p1, slot), Collections.frequency(p2, slot));
+                assertTrue(Collections.frequency(c, slot) >= shared, "Lost shared slot " + slot);
+            }
+            if (!clashing)
+                assertEquals(MATH_A.length, new HashSet<>(c).size(), "Parents without repeats give none");
+        }
+    }
+
+    @Test
+    public void testCrossoverOnlyRepeatsSlotsAParentRepeats() {
+        // Three distinct slots for four hours: the child must repeat one, but only one a parent repeats
+        List<Gene> parent1 = copy(template);
+        List<Gene> parent2 = copy(template);
+        setSlots(parent1, MATH_A, slots.get(0), slots.get(0), slots.get(0), slots.get(1));
+        setSlots(parent2, MATH_A, slots.get(2), slots.get(2), slots.get(2), slots.get(2));
+        for (int seed = 0; seed < 50; seed++) {
+            List<Gene> child = copy(parent1);
+            order.crossover(parent1, parent2, child, new Random(seed));
+            assertTrue(Collections.frequency(slotsOf(child, MATH_A), slots.get(1)) <= 1, "Seed " + seed);
+        }
+    }
+
+    private List<Gene> template() {
+        List<Gene> genes = new ArrayList<>();
+        for (int h = 0; h < 4; h++)
+            genes.add(new Gene(null, secA, math, Collections.singletonList(alice)));
+        for (int h = 0; h < 2; h++)
+            genes.add(new Gene(null, secA, lab, Arrays.asList(alice, bob)));
+        for (int h = 0; h < 3; h++)
+            genes.add(new Gene(null, secA, physics, Collections.singletonList(bob)));
+        for (int h = 0; h < 2; h++)
+            genes.add(new Gene(null, secB, math, Collections.singletonList(alice)));
+        for (Gene g : genes)
+            g.setSlot(slots.get(0));
+        return genes;
+    }
+
+    private List<GeneGroup> movable() {
+        boolean[] pinned = new boolean[template.size()];
+        pinned[PINNED] = true;
+        return GeneGroup.movable(groups, pinned);
+    }
+
+    private GeneGroup groupOf(int index) {
+        return groups.stream().filter(g -> g.gene(0) == index).findFirst().orElseThrow(AssertionError::new);
+    }
+
+    private static List<Gene> copy(List<Gene> genes) {
+        List<Gene> copy = new ArrayList<>(genes.size());
+        for (Gene g : genes)
+            copy.add(new Gene(g.getSlot(), g.getSection(), g.getSubject(), g.getFaculty()));
+        return copy;
+    }
+
+    private static void setSlots(List<Gene> genes, int[] indices, Slot... slots) {
+        for (int k = 0; k < indices.length; k++)
+            genes.get(indices[k]).setSlot(slots[k]);
+    }
+
+    private static List<Slot> slotsOf(List<Gene> genes, int[] indices) {
+        List<Slot> result = new ArrayList<>();
+        for (int index : indices)
+            result.add(genes.get(index).getSlot());
+        return result;
+    }
+
+    private static void distinct(List<Gene> genes, int[] indices, List<Slot> pool, Random rand) {
+        List<Slot> shuffled = new ArrayList<>(pool);
+        Collections.shuffle(shuffled, rand);
+        for (int k = 0; k < indices.length; k++)
+            genes.get(indices[k]).setSlot(shuffled.get(k));
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        return Arrays.stream(indices).anyMatch(i -> i == index);
+    }
+
+    private static List<Slot> slots() {
+        List<Slot> slots = new ArrayList<>();
+        for (DayOfWeek day : Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY)) {
+            LocalTime start = LocalTime.of(8, 0);
+            for (int h = 0; h < 8; h++) {
+                slots.add(new Slot(day, start, start.plusMinutes(55),
+                        start.getHour() < 13 ? Slot.Type.MORNING : Slot.Type.AFTERNOON));
+                start = start.plusMinutes(55);
+            }
+        }
+        return slots;
+    }
+}
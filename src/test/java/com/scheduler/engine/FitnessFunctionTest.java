@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -54,4 +55,95 @@ public class FitnessFunctionTest {
         // Soft constraints might reduce it slightly, but should be high
         assertTrue(fitness > 0.8, "Fitness should be high for valid schedule. Got: " + fitness);
     }
+
+    @Test
+    public void testUnavailableFacultyIsHardViolation() {
+        FitnessFunction ff = new FitnessFunction();
+
+        Faculty f1 = new Faculty("F1", "Alice", 12, 0);
+        f1.addUnavailableWindow(TimeWindow.parse("MON 08:00-09:00"));
+        Subject s1 = new Subject("Math", "M1", false, 3);
+        Section sec1 = new Section("S1", "A", 0);
+
+        Slot slot1 = new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), Slot.Type.MORNING);
+        Slot slot2 = new Slot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), Slot.Type.MORNING);
+
+        Gene g1 = new Gene(slot1, sec1, s1, Collections.singletonList(f1));
+        Gene g2 = new Gene(slot2, sec1, s1, Collections.singletonList(f1));
+
+        Chromosome c = new Chromosome(Arrays.asList(g1, g2));
+
+        assertEquals(1, ff.calculateHardViolations(c), "Only the 08:00 class falls in the unavailable window");
+    }
+
+    @Test
+    public void testScoreRanksHardBeforeSoft() {
+        Score oneHard = new Score(1, 0);
+        Score manySoft = new Score(0, 500);
+
+        assertTrue(manySoft.isBetterThan(oneHard), "No amount of soft violations outweighs a hard one");
+        assertTrue(manySoft.pack() < oneHard.pack(), "Packed scores must keep the same order");
+        assertEquals(manySoft, Score.unpack(manySoft.pack()));
+    }
+
+    @Test
+    public void testReusedFunctionScoresChromosomesWithNewEntities() {
+        FitnessFunction ff = new FitnessFunction();
+        Subject s1 = new Subject("Math", "M1", false, 3);
+        Slot slot1 = new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), Slot.Type.MORNING);
+
+        Faculty f1 = new Faculty("F1", "Alice", 12, 0);
+        Chromosome first = new Chromosome(Collections.singletonList(
+                new Gene(slot1, new Section("S1", "A", 0), s1, Collections.singletonList(f1))));
+        assertEquals(0, ff.calculateHardViolations(first));
+
+        // Entities the cached numbering has never seen: it must be rebuilt, not indexed out of range
+        Faculty f2 = new Faculty("F-new", "Bob", 12, 0);
+        Section sec2 = new Section("S-new", "B", 0);
+        Chromosome second = new Chromosome(Arrays.asList(
+                new Gene(slot1, sec2, s1, Collections.singletonList(f2)),
+                new Gene(slot1, sec2, s1, Collections.singletonList(f2))));
+        assertEquals(new FitnessFunction().calculateScore(second), ff.calculateScore(second));
+        assertEquals(2, ff.calculateHardViolations(second), "Section and faculty double booking");
+        assertEquals(0, ff.calculateHardViolations(first));
+    }
+
+    @Test
+    public void testCutoffOnlyRejectsChromosomesThatDoNotBeatIt() {
+        FitnessFunction ff = new FitnessFunction();
+        Random rand = new Random(7);
+        List<Faculty> faculty = new ArrayList<>();
+        for (int k = 0; k < 3; k++)
+            faculty.add(new Faculty("CF" + k, "Faculty " + k, 4, 0));
+        List<Subject> subjects = Arrays.asList(new Subject("Math", "CM1", false, 3),
+                new Subject("Ethics", "CE1", false, 1), new Subject("Lab", "CL1", true, 2));
+        List<Section> sections = Arrays.asList(new Section("CS1", "A", 0), new Section("CS2", "B", 0));
+        List<Slot> slots = new ArrayList<>();
+        for (DayOfWeek day : Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)) {
+            for (int h = 8; h < 16; h++)
+                slots.add(new Slot(day, LocalTime.of(h, 0), LocalTime.of(h, 55),
+                        h < 13 ? Slot.Type.MORNING : Slot.Type.AFTERNOON));
+        }
+
+        for (int trial = 0; trial < 200; trial++) {
+            List<Gene> genes = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                genes.add(new Gene(slots.get(rand.nextInt(slots.size())), sections.get(rand.nextInt(2)),
+                        subjects.get(rand.nextInt(3)), Collections.singletonList(faculty.get(rand.nextInt(3)))));
+            }
+            Chromosome c = new Chromosome(genes);
+            Score full = ff.calculateScore(c);
+            for (int hard = Math.max(0, full.getHard() - 1); hard <= full.getHard() + 1; hard++) {
+                for (int soft = Math.max(0, full.getSoft() - 2); soft <= full.getSoft() + 2; soft++) {
+                    long cutoff = Score.pack(hard, soft);
+                    Score bounded = ff.calculateScore(c, cutoff);
+                    if (full.pack() < cutoff) {
+                        assertEquals(full, bounded, "Beats cutoff " + hard + "/" + soft + " but was not scored exactly");
+                    } else {
+                        assertNull(bounded, "Does not beat cutoff " + hard + "/" + soft);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneticAlgorithmTest {
+
+    @Test
+    public void testImproveElitesNeverMakesAnEliteWorse() {
+        List<Slot> slots = new TimetableGenerator().createSlots();
+        List<Gene> template = template();
+        FitnessFunction ff = new FitnessFunction();
+        boolean improvedAny = false;
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (long seed = 1; seed <= 5; seed++) {
+                GeneticAlgorithm ga = new GeneticAlgorithm(slots);
+                ga.setSeed(seed);
+                ga.setMemetic(1, 0.2, 300);
+                List<Chromosome> population = ga.startRun(template, null);
+                List<Long> before = packedScores(population);
+
+                ga.improveElites(population, pool);
+
+                // Elites are only replaced by better ones, so no rank gets worse
+                List<Long> after = packedScores(population);
+                for (int rank = 0; rank < before.size(); rank++)
+                    assertTrue(after.get(rank) <= before.get(rank), "Seed " + seed + ", rank " + rank);
+                for (Chromosome c : population)
+                    assertEquals(ff.calculateScore(c), c.getScore(), "Scores stay exact");
+                improvedAny |= !after.equals(before);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(improvedAny, "Local search improved no elite at all");
+    }
+
+    private static List<Long> packedScores(List<Chromosome> population) {
+        List<Long> scores = new ArrayList<>();
+        for (Chromosome c : population)
+            scores.add(c.getPackedScore());
+        return scores;
+    }
+
+    /** Two sections sharing two faculty: three theory courses and a two-hour lab each. */
+    private static List<Gene> template() {
+        Faculty f1 = new Faculty("GA1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("GA2", "Bob", 16, 0);
+        List<Subject> theory = Arrays.asList(new Subject("Math", "GM1", false, 3),
+                new Subject("Physics", "GP1", false, 3), new Subject("Ethics", "GE1", false, 1));
+        Subject lab = new Subject("Lab", "GL1", true, 1);
+        List<Gene> genes = new ArrayList<>();
+        for (Section section : Arrays.asList(new Section("GS1", "A", 0), new Section("GS2", "B", 0))) {
+            for (int s = 0; s < theory.size(); s++) {
+                Subject subject = theory.get(s);
+                for (int h = 0; h < subject.getHoursRequired(); h++)
+                    genes.add(new Gene(null, section, subject, Collections.singletonList(s == 1 ? f2 : f1)));
+            }
+            for (int h = 0; h < lab.getHoursRequired(); h++)
+                genes.add(new Gene(null, section, lab, Arrays.asList(f1, f2)));
+        }
+        return genes;
+    }
+}
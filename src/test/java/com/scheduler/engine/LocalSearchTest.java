@@ -0,0 +1,86 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalSearchTest {
+
+    private final Faculty alice = new Faculty("LF1", "Alice", 16, 0);
+    private final Faculty bob = new Faculty("LF2", "Bob", 16, 0);
+    private final Subject math = new Subject("Math", "LM1", false, 3);
+    private final Subject lab = new Subject("Lab", "LL1", true, 1);
+
+    @Test
+    public void testImproveNeverAddsClashes() {
+        List<Slot> slots = slots(3);
+        Random rand = new Random(21);
+        for (int trial = 0; trial < 50; trial++) {
+            // Everything crammed into the first few slots, so the elites start with clashes
+            List<Gene> genes = new ArrayList<>();
+            for (Section section : Arrays.asList(new Section("LS1", "A", 0), new Section("LS2", "B", 0))) {
+                for (int h = 0; h < 3; h++)
+                    genes.add(new Gene(slots.get(rand.nextInt(3)), section, math,
+                            Collections.singletonList(h == 0 ? bob : alice)));
+            }
+            Chromosome elite = new Chromosome(genes);
+            Occupancy occupancy = new Occupancy(slots);
+            assertTrue(occupancy.load(elite.getGenes()));
+            int clashesBefore = occupancy.clashes();
+
+            Chromosome improved = new LocalSearch(slots, GeneGroup.build(genes, slots)).improve(elite, 100, rand);
+
+            if (improved != null) {
+                assertTrue(occupancy.load(improved.getGenes()));
+                assertTrue(occupancy.clashes() <= clashesBefore, "Trial " + trial);
+            }
+            Occupancy unchanged = new Occupancy(slots);
+            assertTrue(unchanged.load(elite.getGenes()));
+            assertEquals(clashesBefore, unchanged.clashes(), "The elite itself is never modified");
+        }
+    }
+
+    @Test
+    public void testImproveReturnsNullWhenNoMoveIsApplied() {
+        List<Slot> slots = slots(1);
+        Section section = new Section("LS1", "A", 0);
+        List<Gene> genes = new ArrayList<>();
+        genes.add(new Gene(slots.get(0), section, math, Collections.singletonList(alice)));
+        Chromosome elite = new Chromosome(genes);
+        Random rand = new Random(1);
+
+        assertNull(new LocalSearch(slots, GeneGroup.build(genes, slots)).improve(elite, 0, rand), "No budget");
+        assertNull(new LocalSearch(slots, Collections.emptyList()).improve(elite, 100, rand), "Nothing to move");
+
+        // A block as long as the day has exactly one start, so every move is a no-op
+        List<Gene> block = new ArrayList<>();
+        for (int h = 0; h < 2; h++)
+            block.add(new Gene(slots.get(h), section, lab, Arrays.asList(alice, bob)));
+        List<Slot> twoSlots = slots.subList(0, 2);
+        assertNull(new LocalSearch(twoSlots, GeneGroup.build(block, twoSlots)).improve(new Chromosome(block), 100,
+                rand), "Only one place for the block");
+    }
+
+    /** Eight back-to-back hours a day from 08:00, on the first {@code days} weekdays. */
+    private static List<Slot> slots(int days) {
+        List<Slot> slots = new ArrayList<>();
+        for (DayOfWeek day : Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY).subList(0, days)) {
+            LocalTime start = LocalTime.of(8, 0);
+            for (int h = 0; h < 8; h++) {
+                slots.add(new Slot(day, start, start.plusMinutes(55),
+                        start.getHour() < 13 ? Slot.Type.MORNING : Slot.Type.AFTERNOON));
+                start = start.plusMinutes(55);
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,99 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyTest {
+
+    private final FitnessFunction ff = new FitnessFunction();
+
+    @Test
+    public void testDeltaTotalsTrackFullScore() {
+        List<Slot> slots = slots();
+        Chromosome c = randomTimetable(slots, new Random(3));
+        List<GeneGroup> groups = GeneGroup.build(c.getGenes(), slots);
+        Occupancy occupancy = new Occupancy(slots);
+        assertTrue(occupancy.load(c.getGenes()));
+
+        // Workload, subject distribution and unavailability do not move with the groups
+        Score start = ff.calculateScore(c);
+        int hardOffset = start.getHard() - occupancy.clashes();
+        int softOffset = start.getSoft() - occupancy.slotSoft();
+
+        Random rand = new Random(11);
+        for (int move = 0; move < 500; move++) {
+            GeneGroup group = groups.get(rand.nextInt(groups.size()));
+            occupancy.unplace(group);
+            occupancy.place(group, group.randomStart(rand));
+            occupancy.writeBack(c.getGenes());
+
+            Score exact = ff.calculateScore(c);
+            assertEquals(exact.getHard(), occupancy.clashes() + hardOffset, "Clashes after move " + move);
+            assertEquals(exact.getSoft(), occupancy.slotSoft() + softOffset, "Soft after move " + move);
+
+            Occupancy reloaded = new Occupancy(slots);
+            assertTrue(reloaded.load(c.getGenes()));
+            assertEquals(reloaded.clashes(), occupancy.clashes());
+            assertEquals(reloaded.slotSoft(), occupancy.slotSoft());
+        }
+    }
+
+    @Test
+    public void testLocalSearchNeverWorsensTheFullScore() {
+        List<Slot> slots = slots();
+        Random rand = new Random(5);
+        for (int trial = 0; trial < 20; trial++) {
+            Chromosome elite = randomTimetable(slots, rand);
+            LocalSearch search = new LocalSearch(slots, GeneGroup.build(elite.getGenes(), slots));
+            Chromosome improved = search.improve(elite, 200, rand);
+            if (improved != null) {
+                assertTrue(ff.calculateScore(improved).compareTo(ff.calculateScore(elite)) <= 0,
+                        "Local search accepted a move the full score rejects");
+            }
+        }
+    }
+
+    private static List<Slot> slots() {
+        List<Slot> slots = new ArrayList<>();
+        for (DayOfWeek day : Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY)) {
+            LocalTime start = LocalTime.of(8, 0);
+            for (int h = 0; h < 8; h++) {
+                slots.add(new Slot(day, start, start.plusMinutes(55),
+                        start.getHour() < 13 ? Slot.Type.MORNING : Slot.Type.AFTERNOON));
+                start = start.plusMinutes(55);
+            }
+        }
+        return slots;
+    }
+
+    /** Two sections, each with three theory hours and one two-hour lab, placed at random starts. */
+    private static Chromosome randomTimetable(List<Slot> slots, Random rand) {
+        Faculty f1 = new Faculty("OF1", "Alice", 8, 0);
+        Faculty f2 = new Faculty("OF2", "Bob", 8, 0);
+        Subject math = new Subject("Math", "OM1", false, 3);
+        Subject lab = new Subject("Lab", "OL1", true, 2);
+        List<Gene> genes = new ArrayList<>();
+        for (Section sec : Arrays.asList(new Section("OS1", "A", 0), new Section("OS2", "B", 0))) {
+            for (int h = 0; h < 3; h++)
+                genes.add(new Gene(slots.get(0), sec, math, Collections.singletonList(h == 0 ? f1 : f2)));
+            for (int h = 0; h < 2; h++)
+                genes.add(new Gene(slots.get(0), sec, lab, Arrays.asList(f1, f2)));
+        }
+        for (GeneGroup group : GeneGroup.build(genes, slots)) {
+            int start = group.randomStart(rand);
+            for (int k = 0; k < group.size(); k++)
+                genes.get(group.gene(k)).setSlot(slots.get(start + k));
+        }
+        return new Chromosome(genes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomAssignerTest {
+
+    @Test
+    public void testHungarianMatchesBruteForce() {
+        Random rand = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            int n = 1 + rand.nextInt(4);
+            int m = n + rand.nextInt(3);
+            long[][] cost = new long[n][m];
+            for (long[] row : cost)
+                for (int j = 0; j < m; j++)
+                    row[j] = rand.nextInt(100);
+
+            int[] assignment = RoomAssigner.hungarian(cost, n, m);
+
+            Set<Integer> columns = new HashSet<>();
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                assertTrue(columns.add(assignment[i]), "column used twice");
+                total += cost[i][assignment[i]];
+            }
+            assertEquals(bruteForce(cost, 0, new boolean[m]), total);
+        }
+    }
+
+    @Test
+    public void testAssignsEveryClassWhenGreedyWouldNot() {
+        // The 40-seat class fits both rooms but must leave the 60-seat room to the 55-seat class
+        Section small = new Section("S1", "A", 0, 40);
+        Section large = new Section("S2", "B", 0, 55);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Faculty f1 = new Faculty("F1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 0);
+        Slot slot = new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 55), Slot.Type.MORNING);
+        Gene a = new Gene(slot, small, math, Collections.singletonList(f1));
+        Gene b = new Gene(slot, large, math, Collections.singletonList(f2));
+
+        int unassigned = new RoomAssigner().assignRooms(new Chromosome(Arrays.asList(a, b)),
+                Arrays.asList(new Room("R60", 60, false), new Room("R45", 45, false)));
+
+        assertEquals(0, unassigned);
+        assertEquals("R45", a.getRoomId());
+        assertEquals("R60", b.getRoomId());
+    }
+
+    private static long bruteForce(long[][] cost, int row, boolean[] used) {
+        if (row == cost.length)
+            return 0;
+        long best = Long.MAX_VALUE;
+        for (int j = 0; j < used.length; j++) {
+            if (used[j])
+                continue;
+            used[j] = true;
+            best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+            used[j] = false;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,402 @@
+package com.scheduler.engine;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableGeneratorTest {
+
+    @Test
+    public void testSectionsWithoutSharedFacultyAreSeparateComponents() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 3);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 3);
+        Faculty f3 = new Faculty("F3", "Carol", 16, 3);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Section secA = new Section("S1", "A", 0);
+        Section secB = new Section("S2", "B", 0);
+        Section secC = new Section("S3", "C", 0);
+
+        // A and B share Alice; C is taught only by Carol
+        List<Gene> genes = Arrays.asList(
+                new Gene(null, secA, math, Collections.singletonList(f1)),
+                new Gene(null, secC, math, Collections.singletonList(f3)),
+                new Gene(null, secB, math, Arrays.asList(f1, f2)),
+                new Gene(null, secC, math, Collections.singletonList(f3)));
+
+        List<List<Integer>> components = new TimetableGenerator().findComponents(genes);
+
+        assertEquals(2, components.size());
+        assertEquals(Arrays.asList(0, 2), components.get(0));
+        assertEquals(Arrays.asList(1, 3), components.get(1));
+    }
+
+    @Test
+    public void testPolishBalancesMorningsAcrossComponents() {
+        Faculty f1 = new Faculty("F1", "Alice", 5, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 5, 0);
+        Subject math = new Subject("Math", "M1", false, 5);
+        Section secA = new Section("S1", "A", 0);
+        Section secB = new Section("S2", "B", 0);
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setSeed(1);
+        List<Slot> slots = generator.createSlots();
+
+        // One class a day: Alice teaches three of hers at 8 AM, Bob one
+        List<Gene> template = new ArrayList<>();
+        List<Gene> aliceGenes = new ArrayList<>();
+        List<Gene> bobGenes = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            template.add(new Gene(null, secA, math, Collections.singletonList(f1)));
+            template.add(new Gene(null, secB, math, Collections.singletonList(f2)));
+            Slot eight = slots.get(9 * day);
+            Slot tenTwenty = slots.get(9 * day + 2);
+            aliceGenes.add(new Gene(day < 3 ? eight : tenTwenty, secA, math, Collections.singletonList(f1)));
+            bobGenes.add(new Gene(day < 1 ? eight : tenTwenty, secB, math, Collections.singletonList(f2)));
+        }
+        assertEquals(2, generator.findComponents(template).size());
+
+        // Each component is optimal on its own; only the merged timetable pays for the imbalance
+        FitnessFunction ff = new FitnessFunction();
+        assertEquals(new Score(0, 0), ff.calculateScore(new Chromosome(aliceGenes)));
+        assertEquals(new Score(0, 0), ff.calculateScore(new Chromosome(bobGenes)));
+        List<Gene> merged = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            merged.add(aliceGenes.get(day));
+            merged.add(bobGenes.get(day));
+        }
+        assertEquals(new Score(0, 2), ff.calculateScore(new Chromosome(merged)));
+
+        Chromosome polished = generator.polish(slots, template, new Chromosome(merged));
+
+        assertEquals(new Score(0, 0), polished.getScore());
+        assertEquals(polished.getScore(), ff.calculateScore(polished));
+    }
+
+    @Test
+    public void testRescheduleMovesOnlyTheAffectedDay() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 0);
+        Faculty f3 = new Faculty("F3", "Carol", 16, 0); // Backup for Physics
+        f1.addPreferredSubject("M1");
+        f2.addPreferredSubject("P1");
+        f3.addPreferredSubject("P1");
+        List<Faculty> faculty = Arrays.asList(f1, f2, f3);
+        List<Subject> subjects = Arrays.asList(new Subject("Math", "M1", false, 3),
+                new Subject("Physics", "P1", false, 3));
+
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setAlgorithm(TimetableGenerator.Algorithm.LNS);
+        generator.setSeed(1);
+        Chromosome current = generator.generateTimetable(faculty, subjects,
+                Arrays.asList(new Section("S1", "A", 0), new Section("S2", "B", 0)));
+        Slot blocked = current.getGenes().get(0).getSlot();
+
+        ChangeSet changes = new ChangeSet();
+        changes.blockSlot(blocked);
+        Chromosome repaired = generator.reschedule(current, changes, faculty, subjects);
+
+        assertEquals(current.getGenes().size(), repaired.getGenes().size());
+        for (int i = 0; i < current.getGenes().size(); i++) {
+            Slot before = current.getGenes().get(i).getSlot();
+            Slot after = repaired.getGenes().get(i).getSlot();
+            assertNotEquals(blocked, after, "No class stays in the blocked slot");
+            if (before.getDay() != blocked.getDay())
+                assertEquals(before, after, "Classes on other days are pinned");
+        }
+        assertEquals(0, repaired.getScore().getHard());
+
+        ChangeSet leave = new ChangeSet();
+        leave.removeFaculty(f2);
+        Chromosome covered = generator.reschedule(current, leave, faculty, subjects);
+        assertTrue(covered.getGenes().stream().noneMatch(g -> g.getFaculty().contains(f2)));
+        assertEquals(current.getGenes().size(), covered.getGenes().size());
+    }
+
+    @Test
+    public void testRescheduleUnpinsTheFacultyOfAnAddedSection() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 0);
+        f1.addPreferredSubject("M1");
+        f2.addPreferredSubject("P1");
+        List<Faculty> faculty = Arrays.asList(f1, f2);
+        Subject math = new Subject("Math", "M1", false, 3);
+        List<Subject> subjects = Arrays.asList(math, new Subject("Physics", "P1", false, 3));
+
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setAlgorithm(TimetableGenerator.Algorithm.LNS);
+        generator.setSeed(1);
+        Chromosome current = generator.generateTimetable(faculty, subjects,
+                Collections.singletonList(new Section("S1", "A", 0)));
+
+        // The new section's Math has no day yet, so all of Alice's classes may have to make room
+        List<Gene> genes = new ArrayList<>(current.getGenes());
+        genes.add(new Gene(null, new Section("S2", "B", 0), math, Collections.singletonList(f1)));
+        boolean[] affected = new boolean[genes.size()];
+        affected[genes.size() - 1] = true;
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < genes.size(); i++) {
+            if (genes.get(i).getFaculty().contains(f1))
+                expected.add(i);
+        }
+        assertEquals(expected, new IncrementalRescheduler(generator).conflictNeighbourhood(genes, affected));
+
+        ChangeSet changes = new ChangeSet();
+        changes.addSection(new Section("S2", "B", 0));
+        Chromosome repaired = generator.reschedule(current, changes, faculty, subjects);
+        assertEquals(2 * current.getGenes().size(), repaired.getGenes().size());
+        assertEquals(0, repaired.getScore().getHard());
+    }
+
+    @Test
+    public void testWarmStartKeepsPriorSlotsAndFitsNewCourses() {
+        List<Slot> slots = new TimetableGenerator().createSlots();
+        Faculty oldTeacher = new Faculty("F1", "Alice", 16, 0);
+        Faculty newTeacher = new Faculty("F2", "Bob", 16, 0);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Subject physics = new Subject("Physics", "P1", false, 3); // New this semester
+        Section secA = new Section("S1", "A", 0);
+
+        List<Slot> priorSlots = Arrays.asList(slots.get(3), slots.get(10), slots.get(20));
+        List<Gene> prior = new ArrayList<>();
+        for (Slot slot : priorSlots)
+            prior.add(new Gene(slot, secA, math, Collections.singletonList(oldTeacher)));
+
+        // Math changed hands, so it is matched by section and subject alone
+        List<Gene> template = new ArrayList<>();
+        for (int h = 0; h < 3; h++)
+            template.add(new Gene(null, secA, math, Collections.singletonList(newTeacher)));
+        for (int h = 0; h < 3; h++)
+            template.add(new Gene(null, secA, physics, Collections.singletonList(newTeacher)));
+        List<GeneGroup> groups = GeneGroup.build(template, slots);
+
+        List<List<Slot>> mapped = new WarmStartMapper(slots).map(template, groups, new Chromosome(prior));
+
+        List<Slot> mathSlots = new ArrayList<>();
+        Set<Slot> used = new HashSet<>();
+        for (int i = 0; i < groups.size(); i++) {
+            Slot slot = mapped.get(i).get(0);
+            assertTrue(used.add(slot), "No two classes of the section share a slot");
+            if (template.get(groups.get(i).gene(0)).getSubject() == math)
+                mathSlots.add(slot);
+        }
+        assertEquals(new HashSet<>(priorSlots), new HashSet<>(mathSlots));
+    }
+
+    @Test
+    public void testLabBlocksStartOnlyWhereTheWholeTeamIsFree() {
+        List<Slot> slots = new TimetableGenerator().createSlots();
+        Faculty f1 = new Faculty("F1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 0);
+        f2.addUnavailableWindow(TimeWindow.parse("MON 08:00-12:00"));
+        Subject lab = new Subject("Lab", "L1", true, 1); // Two hours
+        Section secA = new Section("S1", "A", 0);
+        List<Gene> template = Arrays.asList(
+                new Gene(null, secA, lab, Arrays.asList(f1, f2)),
+                new Gene(null, secA, lab, Arrays.asList(f1, f2)));
+
+        List<GeneGroup> groups = GeneGroup.build(template, slots);
+
+        assertEquals(1, groups.size(), "Both lab hours move as one block");
+        GeneGroup block = groups.get(0);
+        assertTrue(block.isBlock());
+        assertTrue(block.getStarts().length > 0);
+        for (int start : block.getStarts()) {
+            assertTrue(GeneGroup.isValidBlock(slots, start, 2), "Consecutive slots of one day");
+            for (int k = 0; k < 2; k++) {
+                Slot slot = slots.get(start + k);
+                assertTrue(f2.isAvailable(slot), "Bob is unavailable at " + slot);
+            }
+        }
+    }
+
+    @Test
+    public void testSolvedLabsAreContiguous() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 0);
+        for (Faculty f : Arrays.asList(f1, f2)) {
+            f.addPreferredSubject("UNIX_L");
+            f.addPreferredSubject("M1");
+        }
+        List<Subject> subjects = Arrays.asList(new Subject("Unix Lab", "UNIX_L", true, 2), // Four hours
+                new Subject("Math", "M1", false, 3));
+
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setAlgorithm(TimetableGenerator.Algorithm.LNS);
+        generator.setSeed(1);
+        List<Section> sections = Arrays.asList(new Section("S1", "A", 0), new Section("S2", "B", 0));
+        Chromosome result = generator.generateTimetable(Arrays.asList(f1, f2), subjects, sections);
+
+        List<Slot> slots = generator.createSlots();
+        for (Section section : sections) {
+            List<Integer> positions = new ArrayList<>();
+            for (Gene g : result.getGenes()) {
+                if (g.getSection().equals(section) && g.getSubject().isLab())
+                    positions.add(slots.indexOf(g.getSlot()));
+            }
+            Collections.sort(positions);
+            assertEquals(4, positions.size());
+            assertTrue(GeneGroup.isValidBlock(slots, positions.get(0), 4), "Lab hours " + positions);
+            assertEquals(positions.get(0) + 3, (int) positions.get(3));
+        }
+    }
+
+    @Test
+    public void testLargeNeighbourhoodSearchFindsClashFreeTimetable() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 3);
+        Faculty f2 = new Faculty("F2", "Bob", 16, 3);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Subject physics = new Subject("Physics", "P1", false, 3);
+        Section secA = new Section("S1", "A", 0);
+        Section secB = new Section("S2", "B", 0);
+        for (Faculty f : Arrays.asList(f1, f2)) {
+            f.addPreferredSubject("M1");
+            f.addPreferredSubject("P1");
+        }
+
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setAlgorithm(TimetableGenerator.Algorithm.LNS);
+        Chromosome result = generator.generateTimetable(Arrays.asList(f1, f2), Arrays.asList(math, physics),
+                Arrays.asList(secA, secB));
+
+        assertEquals(0, result.getScore().getHard());
+        assertEquals(result.getScore(), new FitnessFunction().calculateScore(result));
+    }
+
+    @Test
+    public void testLowerBoundCountsUnavoidableViolations() {
+        Faculty f1 = new Faculty("F1", "Alice", 4, 2); // Two teaching credits
+        Subject math = new Subject("Math", "M1", false, 3);
+        Section secA = new Section("S1", "A", 0);
+        List<Slot> slots = Arrays.asList(
+                new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 50), Slot.Type.MORNING),
+                new Slot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(9, 50), Slot.Type.MORNING));
+        List<Gene> genes = Collections.nCopies(3, new Gene(null, secA, math, Collections.singletonList(f1)));
+
+        // Three hours in two slots: one section clash, one faculty clash, one over the limit
+        assertEquals(new Score(3, 0), LowerBound.of(genes, slots));
+    }
+
+    @Test
+    public void testBalancedAssignmentSucceedsWhereGreedyOverloads() {
+        Faculty f1 = new Faculty("F1", "Alice", 3, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 3, 0);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Subject physics = new Subject("Physics", "P1", false, 3);
+        Section secA = new Section("S1", "A", 0);
+        f1.addPreferredSubject("M1");
+        f1.addPreferredSubject("P1");
+        f2.addPreferredSubject("M1"); // Only Alice can teach Physics
+
+        List<Faculty> faculty = Arrays.asList(f1, f2);
+        TimetableGenerator generator = new TimetableGenerator();
+        assertThrows(IllegalStateException.class, () -> generator.createGenes(faculty, Arrays.asList(math, physics),
+                Collections.singletonList(secA), new HashMap<>()));
+
+        generator.setBalancedAssignment(true);
+        List<Gene> genes = generator.createGenes(faculty, Arrays.asList(math, physics),
+                Collections.singletonList(secA), new HashMap<>());
+        for (Gene g : genes)
+            assertEquals(g.getSubject() == math ? f2 : f1, g.getFaculty().get(0));
+    }
+
+    @Test
+    public void testBalancedAssignmentRoundsSplitCoursesWithoutOverloading() {
+        Faculty f0 = new Faculty("F0", "Alice", 4, 0);
+        Faculty f1 = new Faculty("F1", "Bob", 7, 0);
+        Subject c0 = new Subject("Ethics", "C0", false, 2);
+        Subject c1 = new Subject("Math", "C1", false, 4);
+        Subject c2 = new Subject("Physics", "C2", false, 4);
+        f0.addPreferredSubject("C0");
+        f0.addPreferredSubject("C2");
+        for (Subject s : Arrays.asList(c0, c1, c2))
+            f1.addPreferredSubject(s.getCode());
+
+        // Ten credits for eleven: only Bob on Math and Ethics, Alice on Physics fits
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setBalancedAssignment(true);
+        HashMap<Faculty, Double> load = new HashMap<>();
+        List<Gene> genes = generator.createGenes(Arrays.asList(f0, f1), Arrays.asList(c0, c1, c2),
+                Collections.singletonList(new Section("S1", "A", 0)), load);
+
+        assertEquals(10, genes.size());
+        for (Gene g : genes)
+            assertEquals(g.getSubject() == c2 ? f0 : f1, g.getFaculty().get(0), g.getSubject().getName());
+        assertEquals(4.0, load.get(f0));
+        assertEquals(6.0, load.get(f1));
+    }
+
+    @Test
+    public void testFeasibilityCheckRejectsUnstaffableInput() {
+        Faculty f1 = new Faculty("F1", "Alice", 4, 0);
+        Subject math = new Subject("Math", "M1", false, 3);
+        f1.addPreferredSubject("M1");
+        List<Section> sections = Arrays.asList(new Section("S1", "A", 0), new Section("S2", "B", 0));
+
+        // Six credits of Math for a four-credit limit: rejected before any search
+        TimetableGenerator generator = new TimetableGenerator();
+        FeasibilityCheck.InfeasibleException e = assertThrows(FeasibilityCheck.InfeasibleException.class,
+                () -> generator.generateTimetable(Collections.singletonList(f1), Collections.singletonList(math),
+                        sections));
+        assertTrue(e.getDiagnostics().stream()
+                .anyMatch(d -> d.getKind() == FeasibilityCheck.Diagnostic.Kind.FACULTY_CAPACITY
+                        && "Math".equals(d.getEntity())));
+    }
+
+    @Test
+    public void testProgressListenerEndsWithFinalBest() {
+        Faculty f1 = new Faculty("F1", "Alice", 16, 3);
+        Subject math = new Subject("Math", "M1", false, 3);
+        Section secA = new Section("S1", "A", 0);
+        List<Gene> template = Collections.nCopies(3, new Gene(null, secA, math, Collections.singletonList(f1)));
+
+        List<SolverProgress> reports = new ArrayList<>();
+        GeneticAlgorithm ga = new GeneticAlgorithm(new TimetableGenerator().createSlots());
+        ga.setSeed(1);
+        ga.setProgressListener(reports::add);
+        Chromosome result = ga.evolve(template);
+
+        SolverProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.isFinished());
+        assertEquals(result.getScore(), last.getBest());
+        assertFalse(last.getWorst().isBetterThan(last.getBest()));
+    }
+
+    @Test
+    public void testProgressOfParallelComponentsIsReportedAsOneRun() {
+        // Each can teach only one section's Math, so the sections share no faculty
+        Faculty f1 = new Faculty("F1", "Alice", 3, 0);
+        Faculty f2 = new Faculty("F2", "Bob", 3, 0);
+        f1.addPreferredSubject("M1");
+        f2.addPreferredSubject("M1");
+        Subject math = new Subject("Math", "M1", false, 3);
+
+        List<SolverProgress> reports = Collections.synchronizedList(new ArrayList<>());
+        TimetableGenerator generator = new TimetableGenerator();
+        generator.setThreads(2);
+        generator.setSeed(1);
+        generator.setProgressListener(reports::add);
+        Chromosome result = generator.generateTimetable(Arrays.asList(f1, f2), Collections.singletonList(math),
+                Arrays.asList(new Section("S1", "A", 0), new Section("S2", "B", 0)));
+
+        assertEquals(2, generator.findComponents(result.getGenes()).size());
+        assertFalse(reports.isEmpty());
+        assertEquals(1, reports.stream().filter(SolverProgress::isFinished).count(), "One final report");
+        SolverProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.isFinished());
+        assertEquals(result.getScore().getHard(), last.getBest().getHard());
+        for (int k = 1; k < reports.size(); k++) {
+            assertFalse(reports.get(k - 1).getBest().isBetterThan(reports.get(k).getBest()),
+                    "The combined best never gets worse");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportServiceTest {
+
+    @Test
+    public void testExportSucceeds(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("timetable.xlsx");
+        Recorder recorder = new Recorder();
+        try (ExportService service = new ExportService(Runnable::run)) {
+            service.export(timetable(), file.toString(), ExportService.Format.EXCEL, recorder);
+            assertTrue(recorder.finished.await(30, TimeUnit.SECONDS));
+        }
+        assertEquals("succeeded", recorder.outcome);
+        assertTrue(Files.size(file) > 0);
+    }
+
+    @Test
+    public void testCancelStopsTheExportAndDeletesTheFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("timetable.pdf");
+        Recorder recorder = new Recorder();
+        CountDownLatch firstPage = new CountDownLatch(1);
+        recorder.onProgress = () -> {
+            firstPage.countDown();
+            try {
+                Thread.sleep(30_000); // Hold the export until it is cancelled
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try (ExportService service = new ExportService(Runnable::run)) {
+            Future<?> task = service.export(timetable(), file.toString(), ExportService.Format.PDF, recorder);
+            assertTrue(firstPage.await(30, TimeUnit.SECONDS));
+            task.cancel(true);
+            assertTrue(recorder.finished.await(30, TimeUnit.SECONDS));
+        }
+        assertEquals("cancelled", recorder.outcome);
+        assertFalse(Files.exists(file), "The partial file is deleted");
+    }
+
+    @Test
+    public void testPdfWritesPagesInOrderPastTheBuildWindow(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("timetable.pdf");
+        int sections = 2 * Runtime.getRuntime().availableProcessors() + 3; // More pages than are built ahead
+        Recorder recorder = new Recorder();
+        List<String> pages = Collections.synchronizedList(new ArrayList<>());
+        recorder.onPage = (done, total, name) -> pages.add(done + "/" + total + " " + name);
+        try (ExportService service = new ExportService(Runnable::run)) {
+            service.export(timetable(sections), file.toString(), ExportService.Format.PDF, recorder);
+            assertTrue(recorder.finished.await(30, TimeUnit.SECONDS));
+        }
+        assertEquals("succeeded", recorder.outcome);
+
+        // Section view first, then the single faculty member; no class has a room yet
+        int total = sections + 1;
+        assertEquals(total, pages.size());
+        for (int i = 0; i < sections; i++)
+            assertEquals((i + 1) + "/" + total + " Section " + i, pages.get(i));
+        assertEquals(total + "/" + total + " Alice", pages.get(total - 1));
+    }
+
+    /** Three sections with one class each, so each export has several pages. */
+    private static Chromosome timetable() {
+        return timetable(3);
+    }
+
+    private static Chromosome timetable(int sections) {
+        Faculty f = new Faculty("EF1", "Alice", 16, 0);
+        Subject math = new Subject("Math", "EM1", false, 3);
+        Slot slot = new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 55), Slot.Type.MORNING);
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 0; i < sections; i++)
+            genes.add(new Gene(slot, new Section("ES" + i, "Section " + i, 0), math, Collections.singletonList(f)));
+        return new Chromosome(genes);
+    }
+
+    private static final class Recorder implements ExportService.Listener {
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile String outcome;
+        volatile Runnable onProgress = () -> {
+        };
+        volatile DataExporter.ProgressListener onPage = (done, total, name) -> {
+        };
+
+        @Override
+        public void progress(int done, int total, String name) {
+            onPage.exported(done, total, name);
+            onProgress.run();
+        }
+
+        @Override
+        public void succeeded(String filePath) {
+            finish("succeeded");
+        }
+
+        @Override
+        public void cancelled() {
+            finish("cancelled");
+        }
+
+        @Override
+        public void failed(Exception e) {
+            finish("failed: " + e);
+        }
+
+        private void finish(String result) {
+            outcome = result;
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.scheduler.util;
+
+import com.scheduler.model.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedCsvLoaderTest {
+
+    @Test
+    public void testQuotedFieldsAndCrlf(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rooms.csv");
+        Files.write(file, ("ID,Capacity,Type\r\n"
+                + "\"Block A, Room 1\",60,Theory\r\n"
+                + "\"The \"\"Big\"\" Lab\",30,Lab\r\n"
+                + "\r\n"
+                + "R3,45,Theory").getBytes(StandardCharsets.UTF_8));
+
+        List<Room> rooms = new MappedCsvLoader().loadRooms(file.toString());
+
+        assertEquals(3, rooms.size());
+        assertEquals("Block A, Room 1", rooms.get(0).getId());
+        assertEquals("The \"Big\" Lab", rooms.get(1).getId());
+        assertTrue(rooms.get(1).isLab());
+        assertEquals("R3", rooms.get(2).getId(), "No trailing \\r on the last field");
+        assertEquals(45, rooms.get(2).getCapacity());
+    }
+
+    @Test
+    public void testChunkedFileKeepsOrderAndLineNumbers(@TempDir Path dir) throws IOException {
+        // Several MB, so the file is split into chunks wherever its line breaks fall
+        int rows = 120_000;
+        StringBuilder csv = new StringBuilder("ID,Capacity,Type\r\n");
+        for (int i = 0; i < rows; i++) {
+            if (i == 90_000)
+                csv.append("\"Broken, room,40,Theory\r\n"); // Unterminated quote
+            else if (i == 100_000)
+                csv.append("\"Room, ").append(i).append("\",forty,Theory\r\n");
+            else
+                csv.append("\"Room, \"\"").append(i).append("\"\"\",").append(i % 90 + 10).append(",Theory\r\n");
+        }
+        Path file = dir.resolve("rooms.csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        MappedCsvLoader.MalformedCsvException e = assertThrows(MappedCsvLoader.MalformedCsvException.class,
+                () -> new MappedCsvLoader().loadRooms(file.toString()));
+
+        List<String> problems = e.getProblems();
+        assertEquals(2, problems.size(), problems.toString());
+        assertTrue(problems.get(0).startsWith("line 90002: unterminated quote"), problems.get(0));
+        assertTrue(problems.get(1).startsWith("line 100002: Capacity is not a number"), problems.get(1));
+
+        // The same file without the bad rows loads completely and in order
+        String fixed = csv.toString().replace("\"Broken, room,40,Theory\r\n", "")
+                .replace("\"Room, 100000\",forty,Theory\r\n", "");
+        Files.write(file, fixed.getBytes(StandardCharsets.UTF_8));
+        List<Room> rooms = new MappedCsvLoader().loadRooms(file.toString());
+        assertEquals(rows - 2, rooms.size());
+        assertEquals("Room, \"0\"", rooms.get(0).getId());
+        assertEquals("Room, \"119999\"", rooms.get(rows - 3).getId());
+    }
+}
@@ -0,0 +1,108 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+
+    @Test
+    public void testRoundTripKeepsSolutionAndRooms(@TempDir Path dir) throws IOException {
+        Snapshot original = sample();
+        Path file = dir.resolve("sample.ttsnap");
+        original.write(file.toString());
+
+        Snapshot back = Snapshot.read(file.toString());
+
+        assertEquals(1, back.getFaculty().size());
+        Faculty f = back.getFaculty().get(0);
+        assertEquals("SF1", f.getId());
+        assertEquals(Collections.singletonList("SM1"), new ArrayList<>(f.getPreferredSubjectCodes()));
+        assertEquals(1, f.getUnavailableWindows().size());
+        assertEquals(2, back.getSubjects().size());
+        assertEquals(55, back.getSections().get(0).getStrength());
+        assertEquals(original.getSlots().size(), back.getSlots().size());
+        assertEquals(3, back.getTemplate().size());
+
+        List<Gene> genes = back.getSolution().getGenes();
+        List<Gene> expected = original.getSolution().getGenes();
+        for (int i = 0; i < genes.size(); i++) {
+            assertEquals(expected.get(i).getSlot().getDay(), genes.get(i).getSlot().getDay());
+            assertEquals(expected.get(i).getSlot().getStartTime(), genes.get(i).getSlot().getStartTime());
+            assertEquals(expected.get(i).getRoomId(), genes.get(i).getRoomId());
+            assertSame(back.getSections().get(0), genes.get(i).getSection());
+        }
+        assertEquals(new Score(0, 4), back.getSolution().getScore());
+    }
+
+    @Test
+    public void testRejectsCorruptAndTruncatedFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sample.ttsnap");
+        sample().write(file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] corrupt = bytes.clone();
+        corrupt[bytes.length / 2] ^= 1;
+        Path corruptFile = dir.resolve("corrupt.ttsnap");
+        Files.write(corruptFile, corrupt);
+        IOException e = assertThrows(IOException.class, () -> Snapshot.read(corruptFile.toString()));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+
+        Path truncatedFile = dir.resolve("truncated.ttsnap");
+        Files.write(truncatedFile, Arrays.copyOf(bytes, bytes.length - 1));
+        e = assertThrows(IOException.class, () -> Snapshot.read(truncatedFile.toString()));
+        assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+    }
+
+    @Test
+    public void testRejectsMoreSlotsThanItCanIndex() {
+        List<Slot> slots = new ArrayList<>();
+        for (int i = 0; i <= Short.MAX_VALUE; i++)
+            slots.add(new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 55), Slot.Type.MORNING));
+        assertThrows(IllegalArgumentException.class, () -> new Snapshot(Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), slots, Collections.emptyList(), null));
+    }
+
+    /** One section with two theory hours (one without a room) and a one-hour lab. */
+    private static Snapshot sample() {
+        Faculty f = new Faculty("SF1", "Alice", 16, 2);
+        f.addPreferredSubject("SM1");
+        f.addUnavailableWindow(TimeWindow.parse("FRI 14:00-16:00"));
+        Subject math = new Subject("Math", "SM1", false, 3);
+        Subject lab = new Subject("Lab", "SL1", true, 1);
+        Section section = new Section("SS1", "A", 2, 55);
+        List<Slot> slots = new ArrayList<>();
+        for (DayOfWeek day : Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)) {
+            slots.add(new Slot(day, LocalTime.of(8, 0), LocalTime.of(8, 55), Slot.Type.MORNING));
+            slots.add(new Slot(day, LocalTime.of(14, 0), LocalTime.of(14, 55), Slot.Type.AFTERNOON));
+        }
+        List<Gene> template = Arrays.asList(
+                new Gene(null, section, math, Collections.singletonList(f)),
+                new Gene(null, section, math, Collections.singletonList(f)),
+                new Gene(null, section, lab, Collections.singletonList(f)));
+
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 0; i < template.size(); i++) {
+            Gene t = template.get(i);
+            genes.add(new Gene(slots.get(3 - i), t.getSection(), t.getSubject(), t.getFaculty()));
+        }
+        genes.get(0).setRoomId("Block A, Room 1");
+        genes.get(2).setRoomId("LAB-1");
+        Chromosome solution = new Chromosome(genes);
+        solution.setScore(new Score(0, 4));
+        return new Snapshot(Collections.singletonList(f), Arrays.asList(math, lab),
+                Collections.singletonList(section), slots, template, solution);
+    }
+}
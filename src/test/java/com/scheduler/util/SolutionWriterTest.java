@@ -0,0 +1,71 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionWriterTest {
+
+    @Test
+    public void testJsonlEscapesStrings() throws IOException {
+        String out = write(sample(), SolutionWriter.Format.JSONL);
+
+        String[] lines = out.split("\n", -1);
+        assertEquals(3, lines.length, "Two records, each ending in a newline");
+        assertEquals("{\"section\":\"SEC \\\"A\\\"\",\"subject\":\"DSA\\\\1\",\"faculty\":[\"F1\",\"F,2\"],"
+                + "\"day\":\"MONDAY\",\"start\":\"08:00\",\"end\":\"08:55\",\"room\":\"Room\\u000d\\u000a1\"}", lines[0]);
+        assertTrue(lines[1].endsWith("\"room\":null}"), lines[1]);
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    public void testCsvQuotesFieldsThatNeedIt() throws IOException {
+        String out = write(sample(), SolutionWriter.Format.CSV);
+
+        assertEquals("Section,Subject,Faculty,Day,Start,End,Room\n"
+                + "\"SEC \"\"A\"\"\",DSA\\1,\"F1;F,2\",MONDAY,08:00,08:55,\"Room\r\n1\"\n"
+                + "SEC2,MEé,F1,TUESDAY,14:00,14:55,\n", out);
+    }
+
+    @Test
+    public void testLargeOutputSpansManyBuffers() throws IOException {
+        Chromosome base = sample();
+        List<Gene> genes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            genes.addAll(base.getGenes());
+
+        String out = write(new Chromosome(genes), SolutionWriter.Format.JSONL);
+
+        assertEquals(10_000, out.chars().filter(c -> c == '\n').count());
+        assertTrue(out.endsWith("\"room\":null}\n"));
+    }
+
+    private static String write(Chromosome chromosome, SolutionWriter.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SolutionWriter().write(chromosome, out, format);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /** One record with every character that needs escaping, one plain record without a room. */
+    private static Chromosome sample() {
+        Gene awkward = new Gene(new Slot(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(8, 55), Slot.Type.MORNING),
+                new Section("SEC \"A\"", "A", 0), new Subject("Data Structures", "DSA\\1", false, 3),
+                Arrays.asList(new Faculty("F1", "Alice", 16, 0), new Faculty("F,2", "Bob", 16, 0)));
+        awkward.setRoomId("Room\r\n1");
+        Gene plain = new Gene(new Slot(DayOfWeek.TUESDAY, LocalTime.of(14, 0), LocalTime.of(14, 55),
+                Slot.Type.AFTERNOON), new Section("SEC2", "B", 0), new Subject("Mechanics", "MEé", false, 3),
+                Collections.singletonList(new Faculty("F1", "Alice", 16, 0)));
+        return new Chromosome(Arrays.asList(awkward, plain));
+    }
+}
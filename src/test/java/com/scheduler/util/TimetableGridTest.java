@@ -0,0 +1,123 @@
+package com.scheduler.util;
+
+import com.scheduler.model.*;
+import com.scheduler.util.TimetableGrid.View;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimetableGridTest {
+
+    private final Faculty alice = new Faculty("GF1", "Alice", 16, 0);
+    private final Faculty bob = new Faculty("GF2", "Bob", 16, 0);
+    private final Subject math = new Subject("Math", "GM1", false, 3);
+    private final Subject lab = new Subject("Lab", "GL1", true, 2);
+    private final Section sectionB = new Section("GS2", "B", 0);
+    private final Section sectionA = new Section("GS1", "A", 0);
+
+    @Test
+    public void testSectionCellsAreIndexedByDayAndPeriod() {
+        Gene monday = gene(DayOfWeek.MONDAY, 8, 0, sectionA, math, alice);
+        Gene tuesday = gene(DayOfWeek.TUESDAY, 14, 55, sectionA, math, alice);
+        Gene saturday = gene(DayOfWeek.SATURDAY, 16, 45, sectionB, math, bob);
+        Gene clash = gene(DayOfWeek.MONDAY, 8, 0, sectionA, math, bob);
+        Gene offGrid = gene(DayOfWeek.MONDAY, 9, 50, sectionA, math, alice); // Morning break
+        Gene sunday = gene(DayOfWeek.SUNDAY, 8, 0, sectionA, math, alice);
+
+        TimetableGrid grid = TimetableGrid.build(Arrays.asList(monday, tuesday, saturday, clash, offGrid, sunday))
+                .get(View.SECTION);
+
+        assertEquals(View.SECTION, grid.getView());
+        assertEquals(2, grid.size());
+        assertEquals("A", grid.name(0), "Rows are in name order");
+        assertEquals("B", grid.name(1));
+        int a = grid.indexOf("GS1");
+        assertSame(monday, grid.get(a, 0, 0), "The first gene in a cell is kept");
+        assertSame(tuesday, grid.get(a, 1, 6));
+        assertSame(saturday, grid.get(grid.indexOf("GS2"), 5, 8));
+        assertEquals(-1, grid.indexOf("missing"));
+
+        int filled = 0;
+        for (int row = 0; row < grid.size(); row++) {
+            for (int day = 0; day < TimetableGrid.DAYS; day++) {
+                for (int period = 0; period < TimetableGrid.PERIODS; period++) {
+                    if (grid.get(row, day, period) != null)
+                        filled++;
+                }
+            }
+        }
+        assertEquals(3, filled, "Off-grid and Sunday genes are left out");
+    }
+
+    @Test
+    public void testFacultyAndRoomViewsComeFromTheSamePass() {
+        Gene theory = gene(DayOfWeek.MONDAY, 8, 0, sectionA, math, alice);
+        theory.setRoomId("R101");
+        Gene labHour = gene(DayOfWeek.WEDNESDAY, 14, 0, sectionB, lab, alice, bob);
+        labHour.setRoomId("LAB-1");
+        Gene noRoom = gene(DayOfWeek.FRIDAY, 10, 20, sectionB, math, bob);
+
+        Map<View, TimetableGrid> grids = TimetableGrid.build(Arrays.asList(theory, labHour, noRoom));
+
+        TimetableGrid faculty = grids.get(View.FACULTY);
+        assertEquals(Arrays.asList("Alice", "Bob"), Arrays.asList(faculty.name(0), faculty.name(1)));
+        int a = faculty.indexOf("GF1");
+        int b = faculty.indexOf("GF2");
+        assertSame(theory, faculty.get(a, 0, 0));
+        assertSame(labHour, faculty.get(a, 2, 5), "A lab appears under every member of its team");
+        assertSame(labHour, faculty.get(b, 2, 5));
+        assertSame(noRoom, faculty.get(b, 4, 2));
+
+        TimetableGrid rooms = grids.get(View.ROOM);
+        assertEquals(2, rooms.size(), "Only genes with a room");
+        assertSame(labHour, rooms.get(rooms.indexOf("LAB-1"), 2, 5));
+        assertSame(theory, rooms.get(rooms.indexOf("R101"), 0, 0));
+    }
+
+    @Test
+    public void testExcelExportWritesOneSheetPerRowOfEachView(@TempDir Path dir) throws IOException {
+        Gene theory = gene(DayOfWeek.MONDAY, 8, 0, sectionA, math, alice);
+        theory.setRoomId("R101");
+        Gene labHour = gene(DayOfWeek.WEDNESDAY, 14, 0, sectionB, lab, alice, bob);
+        Path file = dir.resolve("views.xlsx");
+
+        new DataExporter().exportToExcel(new Chromosome(Arrays.asList(theory, labHour)), file.toString(),
+                EnumSet.of(View.FACULTY, View.ROOM));
+
+        try (Workbook workbook = new XSSFWorkbook(file.toFile())) {
+            List<String> sheets = new ArrayList<>();
+            for (Sheet sheet : workbook)
+                sheets.add(sheet.getSheetName());
+            assertEquals(Arrays.asList("Faculty - Alice", "Faculty - Bob", "Room - R101"), sheets);
+            Row monday = workbook.getSheet("Faculty - Alice").getRow(1);
+            assertEquals("MONDAY", monday.getCell(0).getStringCellValue());
+            assertTrue(monday.getCell(1).getStringCellValue().contains("Math"), "8:00 class in the first period");
+        } catch (InvalidFormatException e) {
+            fail(e);
+        }
+    }
+
+    private static Gene gene(DayOfWeek day, int hour, int minute, Section section, Subject subject,
+            Faculty... team) {
+        LocalTime start = LocalTime.of(hour, minute);
+        Slot slot = new Slot(day, start, start.plusMinutes(55),
+                hour < 13 ? Slot.Type.MORNING : Slot.Type.AFTERNOON);
+        return new Gene(slot, section, subject, Arrays.asList(team));
+    }
+}